@@ -0,0 +1,31 @@
+package com.github.splitbuddy.cache;
+
+import java.util.Map;
+
+/**
+ * Names of the second-level cache regions. Each must have a matching section in {@code application.conf}, where the
+ * Caffeine provider gets its size bounds from.
+ */
+public final class CacheRegions {
+
+    public static final String GROUPS = "groups";
+    public static final String GROUP_MEMBERS = "group-members";
+    public static final String USERS = "users";
+
+    public static final String GROUP_MEMBER_QUERIES = "group-member-queries";
+    public static final String USER_QUERIES = "user-queries";
+
+    private static final Map<String, String> QUERY_REGIONS_BY_ENTITY_REGION = Map.of(
+            GROUP_MEMBERS, GROUP_MEMBER_QUERIES,
+            USERS, USER_QUERIES);
+
+    private CacheRegions() {
+    }
+
+    /**
+     * @return the query region holding queries over the given entity region, or {@code null} when there is none
+     */
+    public static String queryRegionOf(String entityRegion) {
+        return QUERY_REGIONS_BY_ENTITY_REGION.get(entityRegion);
+    }
+}
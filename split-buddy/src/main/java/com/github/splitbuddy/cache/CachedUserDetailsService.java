@@ -0,0 +1,112 @@
+package com.github.splitbuddy.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the principals resolved for authenticated requests, so a valid token does not cost a user lookup on every
+ * call. Entries expire after a fixed time and the least recently used ones are dropped beyond the size bound. Unknown
+ * users are never cached.
+ * <p>
+ * Code changing a user must call {@link #evict}. Other nodes keep a changed user until the entry expires, which is
+ * harmless as long as users only change while unverified, because unverified users never get a token.
+ */
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CachedPrincipal> principals;
+    // bumped by every eviction, guarded by the lock
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CachedUserDetailsService(UserDetailsService delegate, MeterRegistry meterRegistry, int maxEntries,
+                                    long ttlMillis) {
+        this(delegate, meterRegistry, maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    CachedUserDetailsService(UserDetailsService delegate, MeterRegistry meterRegistry, int maxEntries, long ttlMillis,
+                             LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.nanoClock = nanoClock;
+        this.principals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("principal.cache", "result", "hit");
+        this.misses = meterRegistry.counter("principal.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("principal.cache.evictions");
+        meterRegistry.gauge("principal.cache.size", this, CachedUserDetailsService::size);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = nanoClock.getAsLong();
+        long loadGeneration;
+        lock.lock();
+        try {
+            CachedPrincipal cached = principals.get(username);
+            if (cached != null && now - cached.loadedAt() < ttlNanos) {
+                hits.increment();
+                return cached.userDetails();
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        UserDetails userDetails = delegate.loadUserByUsername(username);
+        lock.lock();
+        try {
+            // a user evicted while this load ran may have been read before the change, so it is not kept
+            if (generation == loadGeneration) {
+                principals.put(username, new CachedPrincipal(userDetails, now));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return userDetails;
+    }
+
+    public void evict(String username) {
+        lock.lock();
+        try {
+            generation++;
+            if (principals.remove(username) != null) {
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double size() {
+        lock.lock();
+        try {
+            return principals.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long loadedAt) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.splitbuddy.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint ({@code /actuator/l2cache}) reporting hits, misses and hit ratio of every second-level cache
+ * region from the Hibernate statistics, and evictions from the JCache statistics of the Caffeine provider.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                // the query results regions are only reported through the query statistics
+                regionStatistics = statistics.getQueryRegionStatistics(region);
+            }
+            if (regionStatistics != null) {
+                regions.put(region, RegionStatistics.of(regionStatistics, evictionsOf(region)));
+            }
+        }
+        return regions;
+    }
+
+    private Long evictionsOf(String region) {
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) mBeanServer.getAttribute(name, "CacheEvictions");
+            }
+            return names.isEmpty() ? null : evictions;
+        } catch (Exception e) {
+            log.debug("No JCache statistics for region: {}", region, e);
+            return null;
+        }
+    }
+
+    public record RegionStatistics(long hits, long misses, long puts, double hitRatio, long entries, Long evictions) {
+
+        static RegionStatistics of(CacheRegionStatistics statistics, Long evictions) {
+            long lookups = statistics.getHitCount() + statistics.getMissCount();
+            return new RegionStatistics(statistics.getHitCount(), statistics.getMissCount(), statistics.getPutCount(),
+                    lookups == 0 ? 0 : (double) statistics.getHitCount() / lookups,
+                    statistics.getElementCountInMemory(), evictions);
+        }
+    }
+}
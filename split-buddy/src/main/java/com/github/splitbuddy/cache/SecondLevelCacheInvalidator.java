@@ -0,0 +1,179 @@
+package com.github.splitbuddy.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dtos.CacheInvalidationMessage;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupMemberId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the second-level caches of several nodes coherent. Hibernate already maintains the local cache; after every
+ * committed insert, update or delete of a cached entity this component publishes the change on a Redis channel, and
+ * each other node evicts the entity together with the cached queries over its region.
+ * <p>
+ * Bulk JPQL updates and deletes raise no entity events and would go unnoticed here, so entities with a cache region
+ * must only be changed through the entity manager; today the bulk statements all target uncached tables.
+ * Pub/sub delivery is best effort; the expiry configured per region bounds how long a missed message can leave a
+ * node stale.
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator implements MessageListener, PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SessionFactoryImplementor sessionFactory;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter failures;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       RedisTemplate<String, Object> redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer, ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${cache.invalidation.channel:split-buddy:l2-invalidation}") String channel) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.published = meterRegistry.counter("hibernate.cache.invalidations", "direction", "published");
+        this.received = meterRegistry.counter("hibernate.cache.invalidations", "direction", "received");
+        this.failures = meterRegistry.counter("hibernate.cache.invalidations", "direction", "failed");
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry listenerRegistry = sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // new rows matter too, other nodes may have cached a query that did not find them
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        String region = persister.getCacheAccessStrategy().getRegion().getName();
+        CacheInvalidationMessage message;
+        if (id instanceof GroupMemberId memberId && memberId.getGroup() != null) {
+            // only the id of the group is read, which does not initialize a lazy proxy
+            message = new CacheInvalidationMessage(nodeId, persister.getEntityName(), region,
+                    memberId.getGroup().getId(), memberId.getMemberEmail());
+        } else {
+            message = new CacheInvalidationMessage(nodeId, persister.getEntityName(), region,
+                    id instanceof String stringId ? stringId : null, null);
+        }
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+            published.increment();
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to publish cache invalidation for {} id: {}", message.entityName(), message.id(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message redisMessage, byte[] pattern) {
+        CacheInvalidationMessage message;
+        try {
+            message = objectMapper.readValue(new String(redisMessage.getBody(), StandardCharsets.UTF_8),
+                    CacheInvalidationMessage.class);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Ignoring unreadable cache invalidation message", e);
+            return;
+        }
+        if (nodeId.equals(message.nodeId())) {
+            return;
+        }
+        received.increment();
+        Cache cache = sessionFactory.getCache();
+        if (message.id() == null) {
+            cache.evictEntityData(message.entityName());
+        } else if (message.memberEmail() != null) {
+            cache.evictEntityData(message.entityName(), groupMemberId(message.id(), message.memberEmail()));
+        } else {
+            cache.evictEntityData(message.entityName(), message.id());
+        }
+        String queryRegion = CacheRegions.queryRegionOf(message.region());
+        if (queryRegion != null) {
+            cache.evictQueryRegion(queryRegion);
+        }
+    }
+
+    // cache keys compare the group by its id, so a detached group carrying only the id finds the entry
+    private static GroupMemberId groupMemberId(String groupId, String memberEmail) {
+        Group group = new Group();
+        group.setId(groupId);
+        GroupMemberId groupMemberId = new GroupMemberId();
+        groupMemberId.setGroup(group);
+        groupMemberId.setMemberEmail(memberEmail);
+        return groupMemberId;
+    }
+}
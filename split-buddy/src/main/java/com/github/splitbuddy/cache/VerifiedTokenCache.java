@@ -0,0 +1,78 @@
+package com.github.splitbuddy.cache;
+
+import com.github.splitbuddy.dtos.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers tokens whose signature has already been verified, keyed by a hash of the token so raw tokens are never
+ * held in memory. An entry lives until its token expires; beyond the size bound the least recently used ones are
+ * dropped. Failed verifications are never cached.
+ */
+public class VerifiedTokenCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, VerifiedToken> tokens;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry, int maxEntries) {
+        this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("jwt.verification.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jwt.verification.cache", "result", "miss");
+        meterRegistry.gauge("jwt.verification.cache.size", this, VerifiedTokenCache::size);
+    }
+
+    /**
+     * @return the verified token for the given hash, or {@code null} when it is unknown or has expired since
+     */
+    public VerifiedToken get(String tokenHash) {
+        lock.lock();
+        try {
+            VerifiedToken token = tokens.get(tokenHash);
+            if (token != null && !token.isExpired()) {
+                hits.increment();
+                return token;
+            }
+            if (token != null) {
+                tokens.remove(tokenHash);
+            }
+            misses.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String tokenHash, VerifiedToken token) {
+        // a token without expiry would never leave the cache
+        if (token.expiration() == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            tokens.put(tokenHash, token);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double size() {
+        lock.lock();
+        try {
+            return tokens.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.github.splitbuddy.config;
 
+import com.github.splitbuddy.cache.CachedUserDetailsService;
 import com.github.splitbuddy.dao.UserRepository;
+import com.github.splitbuddy.entity.User;
+import com.github.splitbuddy.service.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Configuration
 @RequiredArgsConstructor
@@ -23,9 +29,30 @@ public class ApplicationConfiguration {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    /**
+     * Resolves the principal of token-authenticated requests from a short-lived cache. Password logins keep using
+     * {@link #userDetailsService()} directly, so credentials are always checked against the database.
+     */
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Primary
+    CachedUserDetailsService cachedUserDetailsService(MeterRegistry meterRegistry,
+                                                      @Value("${security.principal-cache.max-entries:10000}") int maxEntries,
+                                                      @Value("${security.principal-cache.ttl-ms:60000}") long ttlMillis) {
+        return new CachedUserDetailsService(userDetailsService(), meterRegistry, maxEntries, ttlMillis);
+    }
+
+    /**
+     * Stores the rehashed password of a user who logged in with a hash of a lower work factor than configured.
+     */
+    @Bean
+    UserDetailsPasswordService userDetailsPasswordService(CachedUserDetailsService cachedUserDetailsService) {
+        return (userDetails, newPassword) -> {
+            User user = (User) userDetails;
+            user.setPassword(newPassword);
+            User saved = userRepository.save(user);
+            cachedUserDetailsService.evict(saved.getEmail());
+            return saved;
+        };
     }
 
     @Bean
@@ -35,10 +62,12 @@ public class ApplicationConfiguration {
 
     //Sets the new strategy to perform the authentication.
     @Bean
-    AuthenticationProvider authenticationProvider() {
+    AuthenticationProvider authenticationProvider(PasswordHashingService passwordHashingService,
+                                                  UserDetailsPasswordService userDetailsPasswordService) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordHashingService);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
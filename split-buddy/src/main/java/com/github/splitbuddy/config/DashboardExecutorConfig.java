@@ -0,0 +1,38 @@
+package com.github.splitbuddy.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+
+@Configuration
+public class DashboardExecutorConfig {
+
+    // not a default candidate so it neither gets injected by type nor replaces Spring Boot's applicationTaskExecutor
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${dashboard.executor.pool-size:8}") int poolSize,
+                                                    @Value("${dashboard.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setTaskDecorator(runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    MDC.clear();
+                }
+            };
+        });
+        return executor;
+    }
+}
@@ -1,14 +1,19 @@
 package com.github.splitbuddy.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
 
 @Configuration
 @EnableConfigurationProperties
@@ -26,4 +31,24 @@ public class DataSourceConfig {
         dataSource.setJdbcUrl(jdbcUrl);
         return dataSource;
     }
-}
\ No newline at end of file
+
+    /**
+     * Puts a permit in front of the pool when requests run on virtual threads, so their number no longer bounds how
+     * many wait for a connection. Hikari metrics still see the pool, as the wrapper unwraps to it. Without a
+     * positive {@code db.permits.max} there are as many permits as the bound pool has connections.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "db.permits.enabled", havingValue = "true")
+    public DataSource permitLimitedDataSource(@Qualifier("customDataSource") DataSource customDataSource,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${db.permits.max:0}") int maxPermits,
+                                              @Value("${db.permits.acquire-timeout-ms:5000}") long acquireTimeoutMillis)
+            throws SQLException {
+        // read from the pool, which is bound under spring.datasource rather than spring.datasource.hikari
+        int permits = maxPermits > 0
+                ? maxPermits
+                : customDataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        return new PermitLimitedDataSource(customDataSource, meterRegistry, permits, acquireTimeoutMillis);
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.splitbuddy.config;
+
+import com.github.splitbuddy.enums.IdGeneratorType;
+import com.github.splitbuddy.id.IdGenerator;
+import com.github.splitbuddy.id.SnowflakeIdGenerator;
+import com.github.splitbuddy.id.UuidV7IdGenerator;
+import com.github.splitbuddy.utils.SplitUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    // also installed in SplitUtil because the converters generating ids are static
+    @Bean
+    public IdGenerator idGenerator(@Value("${id.generator.type:UUID_V7}") IdGeneratorType type,
+                                   @Value("${id.generator.node-id:#{null}}") Integer nodeId) {
+        IdGenerator idGenerator = switch (type) {
+            case UUID_V7 -> new UuidV7IdGenerator();
+            case SNOWFLAKE -> new SnowflakeIdGenerator(requireNodeId(nodeId));
+        };
+        log.info("Using {} id generator", type);
+        SplitUtil.setIdGenerator(idGenerator);
+        return idGenerator;
+    }
+
+    // a shared default would give every node the same id and make them generate colliding keys
+    private static int requireNodeId(Integer nodeId) {
+        if (nodeId == null) {
+            throw new IllegalArgumentException("id.generator.node-id must be set to a distinct value per node when "
+                    + "id.generator.type is SNOWFLAKE");
+        }
+        return nodeId;
+    }
+}
@@ -4,6 +4,7 @@ import com.github.splitbuddy.dtos.NotificationMessage;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -18,18 +19,26 @@ import java.util.Properties;
 @Configuration
 public class KafkaConfig {
 
+    /**
+     * The notification relay sends while holding a claim on its batch, so a send must not block on metadata or buffer
+     * space for anywhere near the producer default of a minute. The relay job checks this bound against its claim
+     * timeout on startup.
+     */
     @Bean
-    public ProducerFactory<String, NotificationMessage> producerFactory() {
+    public ProducerFactory<String, NotificationMessage> producerFactory(
+            @Value("${kafka.producer.max-block-ms:5000}") long maxBlockMillis) {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMillis);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
     @Bean
-    public KafkaTemplate<String, NotificationMessage> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, NotificationMessage> kafkaTemplate(
+            ProducerFactory<String, NotificationMessage> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     @Bean
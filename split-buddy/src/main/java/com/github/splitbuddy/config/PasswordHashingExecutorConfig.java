@@ -0,0 +1,23 @@
+package com.github.splitbuddy.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PasswordHashingExecutorConfig {
+
+    // BCrypt is pure CPU work, so the pool stays small and excess work is rejected rather than queued without bound
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${security.password-hashing.pool-size:2}") int poolSize,
+            @Value("${security.password-hashing.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.splitbuddy.controller;
+
+import com.github.splitbuddy.dtos.LedgerReconciliation;
+import com.github.splitbuddy.service.BalanceLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/admin")
+@Tag(name = "4. Admin Controller")
+public class AdminController {
+
+    private final BalanceLedgerService balanceLedgerService;
+
+    @Operation(summary = "Reconcile a group's balance ledger against its expense history",
+            description = "Lists every member whose ledger balance differs from a full replay; repair=true overwrites "
+                    + "the ledger with the replayed balances")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = LedgerReconciliation.class)), description = "Successful operation"),
+            @ApiResponse(responseCode = "400", description = "Group not found"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PostMapping(value = "/groups/{groupId}/ledger/reconcile", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<LedgerReconciliation> reconcileLedger(@PathVariable String groupId,
+                                                                @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(balanceLedgerService.reconcile(groupId, repair));
+    }
+}
@@ -2,6 +2,7 @@ package com.github.splitbuddy.controller;
 
 import com.github.splitbuddy.dtos.*;
 import com.github.splitbuddy.exception.InvalidDataException;
+import com.github.splitbuddy.service.GroupSummaryService;
 import com.github.splitbuddy.service.SplitService;
 import com.github.splitbuddy.utils.UserUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,10 +14,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.github.splitbuddy.utils.UserUtil.getCurrentUser;
 import static com.github.splitbuddy.utils.UserUtil.getCurrentUserEmail;
@@ -31,6 +37,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class SplitController {
 
     private final SplitService splitService;
+    private final GroupSummaryService groupSummaryService;
 
     @Operation(summary = "Create Split Group")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
@@ -72,25 +79,49 @@ public class SplitController {
     @Operation(summary = "Get All groups meta data")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
             schema = @Schema(implementation = GroupExpenseSummary.class)), description = "Successful operation"),
+            @ApiResponse(responseCode = "304", description = "Not Modified since the given ETag"),
             @ApiResponse(responseCode = "400", description = "Bad Request"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping(value = "/all-groups", produces = APPLICATION_JSON_VALUE)
-    public ResponseEntity<GroupExpenseSummary> getAllGroupSummary() {
-        return ResponseEntity.ok(splitService.fetchAllGroupSummary(getCurrentUserEmail()));
+    public ResponseEntity<GroupExpenseSummary> getAllGroupSummary(WebRequest webRequest) {
+        String eTag = splitService.getAllGroupSummaryETag(getCurrentUserEmail());
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(splitService.fetchAllGroupSummary(getCurrentUserEmail()));
+    }
+
+    @Operation(summary = "Get All groups meta data without blocking the request thread",
+            description = "Groups whose settlement could not be computed in time are returned without a settlement "
+                    + "amount and listed in incompleteGroupIds")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = GroupExpenseSummary.class)), description = "Successful operation"),
+            @ApiResponse(responseCode = "400", description = "Bad Request"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent requests"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/all-groups/async", produces = APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<GroupExpenseSummary>> getAllGroupSummaryAsync() {
+        return groupSummaryService.fetchAllGroupSummary(getCurrentUserEmail()).thenApply(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get all settlement transactions for a group")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
                     schema = @Schema(implementation = GroupExpenseDTO.class)), description = "Successful operation"),
+            @ApiResponse(responseCode = "304", description = "Not Modified since the given ETag"),
             @ApiResponse(responseCode = "400", content = @Content(mediaType = APPLICATION_JSON_VALUE,
                     schema = @Schema(implementation = String.class)), description = "Bad Request or Invalid Input"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping(value = "/{groupId}", produces = APPLICATION_JSON_VALUE)
-    public ResponseEntity<GroupExpenseDTO> getSettlementTransactions(@PathVariable String groupId) {
-        return ResponseEntity.ok(splitService.getGroupInformation(getCurrentUserEmail(), groupId));
+    public ResponseEntity<GroupExpenseDTO> getSettlementTransactions(@PathVariable String groupId, WebRequest webRequest) {
+        String eTag = splitService.getGroupInformationETag(getCurrentUserEmail(), groupId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(splitService.getGroupInformation(getCurrentUserEmail(), groupId));
     }
 
     @Operation(summary = "Delete a single member from a group")
@@ -116,6 +147,54 @@ public class SplitController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(summary = "Get what changed in a group since a known sequence",
+            description = "Returns the expenses added and members changed after since, plus the sequence to pass next "
+                    + "time; resyncRequired means the group has to be fetched in full")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = GroupSyncResponse.class)), description = "Successful operation"),
+            @ApiResponse(responseCode = "400", description = "Invalid input or request parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/{groupId}/sync", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<GroupSyncResponse> syncGroup(@PathVariable String groupId, @RequestParam long since) {
+        return ResponseEntity.ok(splitService.getGroupChanges(getCurrentUserEmail(), groupId, since));
+    }
+
+    @Operation(summary = "List a group's expenses newest first, one page at a time",
+            description = "Pass the nextCursor of a page as cursor to get the following page; member matches expenses "
+                    + "the member paid for or has a share in, and the date range is [from, to)")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ExpensePage.class)), description = "Successful operation"),
+            @ApiResponse(responseCode = "400", description = "Invalid input or request parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/{groupId}/expenses", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<ExpensePage> getGroupExpenses(
+            @PathVariable String groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + SplitService.DEFAULT_EXPENSE_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String paidBy,
+            @RequestParam(required = false) String member,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        ExpenseFilter filter = new ExpenseFilter(paidBy, member, from, to);
+        return ResponseEntity.ok(splitService.getGroupExpenses(getCurrentUserEmail(), groupId, filter, cursor, limit));
+    }
+
+    @Operation(summary = "Add many expenses to a group at once",
+            description = "All expenses are validated first and nothing is saved if any of them is invalid")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Expenses added successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @PostMapping(value = "/{groupId}/add-expenses", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> addExpenses(@PathVariable String groupId,
+                                            @Valid @RequestBody BulkExpenseCreationRequest request) {
+        splitService.addExpensesToGroup(UserUtil.getCurrentUser(), groupId, request);
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(summary = "Add a member to a group")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", content = @Content(mediaType = APPLICATION_JSON_VALUE,
             schema = @Schema(implementation = AddGroupMemberRequest.class)), description = "Successful operation"),
@@ -132,12 +211,44 @@ public class SplitController {
     @Operation(summary = "Get all settlement transactions for a group")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Settlement transactions retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Not Modified since the given ETag"),
             @ApiResponse(responseCode = "400", description = "Invalid input or request parameters"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     @GetMapping("/{groupId}/settlement-plan")
-    public ResponseEntity<List<SettlementTransactionDTO>> getSettlementPlan(@PathVariable String groupId) {
-        return ResponseEntity.ok(splitService.getAllSettlements(getCurrentUserEmail(), groupId));
+    public ResponseEntity<List<SettlementTransactionDTO>> getSettlementPlan(@PathVariable String groupId,
+                                                                            WebRequest webRequest) {
+        String eTag = splitService.getSettlementsETag(getCurrentUserEmail(), groupId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(splitService.getAllSettlements(getCurrentUserEmail(), groupId));
+    }
+
+    @Operation(summary = "Get every member's net balance in a group",
+            description = "Without asOf the current balances are returned, otherwise only expenses created before asOf count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balances retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input or request parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/{groupId}/balances", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Balance>> getGroupBalances(@PathVariable String groupId,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date asOf) {
+        return ResponseEntity.ok(splitService.getGroupBalances(getCurrentUserEmail(), groupId, asOf));
+    }
+
+    @Operation(summary = "Get the logged in user's settlement transactions across all groups",
+            description = "Debts are netted across every group first, so circular debts between groups cancel out. " +
+                    "A transfer may be to or from a member connected only through other members' groups")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Settlement transactions retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    @GetMapping(value = "/global-settlements", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<SettlementTransactionDTO>> getGlobalSettlements() {
+        return ResponseEntity.ok(splitService.getGlobalSettlements(getCurrentUserEmail()));
     }
 
 }
@@ -2,20 +2,20 @@ package com.github.splitbuddy.converter;
 
 import com.github.splitbuddy.dtos.ExpenseCreationRequest;
 import com.github.splitbuddy.dtos.ExpenseDTO;
+import com.github.splitbuddy.dtos.ExpenseView;
 import com.github.splitbuddy.entity.Expense;
 import com.github.splitbuddy.entity.Group;
 import com.github.splitbuddy.entity.User;
 
 import java.util.Date;
-import java.util.UUID;
 
-import static com.github.splitbuddy.utils.SplitUtil.generateUUID;
+import static com.github.splitbuddy.utils.SplitUtil.generateId;
 
 public class ExpenseConverter {
 
     public static Expense convertToExpense(Group group, ExpenseCreationRequest request, User user) {
         return Expense.builder()
-                .id(generateUUID())
+                .id(generateId())
                 .description(request.getDescription())
                 .totalAmount(request.getTotalAmount())
                 .paidBy(request.getPaidBy())
@@ -26,14 +26,14 @@ public class ExpenseConverter {
                 .build();
     }
 
-    public static ExpenseDTO convertToExpenseDTO(Expense expense) {
+    public static ExpenseDTO convertToExpenseDTO(ExpenseView expense) {
         return ExpenseDTO.builder()
-                .expenseId(expense.getId())
-                .description(expense.getDescription())
-                .ExpenseAmount(expense.getTotalAmount())
-                .paidBy(expense.getPaidBy())
-                .createdBy(expense.getCreatedBy().getEmail())
-                .createdAt(expense.getCreatedAt())
+                .expenseId(expense.id())
+                .description(expense.description())
+                .ExpenseAmount(expense.totalAmount())
+                .paidBy(expense.paidBy())
+                .createdBy(expense.createdBy().getEmail())
+                .createdAt(expense.createdAt())
                 .build();
     }
 }
@@ -2,21 +2,24 @@ package com.github.splitbuddy.converter;
 
 import com.github.splitbuddy.dtos.ExpenseDTO;
 import com.github.splitbuddy.dtos.ExpenseSplitDTO;
+import com.github.splitbuddy.dtos.ExpenseSplitView;
+import com.github.splitbuddy.dtos.ExpenseView;
 import com.github.splitbuddy.dtos.IndividualShare;
 import com.github.splitbuddy.entity.Expense;
 import com.github.splitbuddy.entity.ExpenseSplit;
 
 import java.util.Date;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-import static com.github.splitbuddy.utils.SplitUtil.generateUUID;
+import static com.github.splitbuddy.utils.SplitUtil.generateId;
 
 public class ExpenseSplitConverter {
 
     public static ExpenseSplit convertToExpenseSplit(IndividualShare share, Expense expense) {
         return ExpenseSplit.builder()
-                .id(generateUUID())
+                .id(generateId())
                 .expense(expense)
                 .amountOwed(share.amountOwed())
                 .owedBy(share.owedBy())
@@ -25,23 +28,23 @@ public class ExpenseSplitConverter {
                 .build();
     }
 
-    public static ExpenseSplitDTO convertToExpenseSplitDTO(ExpenseSplit expenseSplit) {
+    public static ExpenseSplitDTO convertToExpenseSplitDTO(ExpenseSplitView expenseSplit) {
         return ExpenseSplitDTO.builder()
-                .expenseSplitId(expenseSplit.getId())
-                .owedBy(expenseSplit.getOwedBy())
-                .amountOwed(expenseSplit.getAmountOwed())
-                .splitAt(expenseSplit.getCreatedAt())
+                .expenseSplitId(expenseSplit.id())
+                .owedBy(expenseSplit.owedBy())
+                .amountOwed(expenseSplit.amountOwed())
+                .splitAt(expenseSplit.createdAt())
                 .build();
     }
 
-    public static List<ExpenseDTO> convertToExpenseDTOs(List<Expense> expenses) {
+    public static List<ExpenseDTO> convertToExpenseDTOs(List<ExpenseView> expenses, List<ExpenseSplitView> splits) {
+        Map<String, List<ExpenseSplitDTO>> splitDTOsByExpenseId = splits.stream()
+                .collect(Collectors.groupingBy(ExpenseSplitView::expenseId,
+                        Collectors.mapping(ExpenseSplitConverter::convertToExpenseSplitDTO, Collectors.toList())));
         return expenses.stream()
                 .map(expense -> {
                     ExpenseDTO dto = ExpenseConverter.convertToExpenseDTO(expense);
-                    List<ExpenseSplitDTO> splitDTOs = expense.getSplits().stream()
-                            .map(ExpenseSplitConverter::convertToExpenseSplitDTO)
-                            .toList();
-                    dto.setExpenseSplits(splitDTOs);
+                    dto.setExpenseSplits(splitDTOsByExpenseId.getOrDefault(expense.id(), List.of()));
                     return dto;
                 })
                 .toList();
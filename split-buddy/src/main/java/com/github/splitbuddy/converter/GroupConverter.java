@@ -3,6 +3,7 @@ package com.github.splitbuddy.converter;
 import com.github.splitbuddy.dtos.GroupCreationResponse;
 import com.github.splitbuddy.dtos.GroupExpenseDTO;
 import com.github.splitbuddy.dtos.GroupMemberDTO;
+import com.github.splitbuddy.dtos.GroupView;
 import com.github.splitbuddy.entity.Group;
 
 import java.util.List;
@@ -18,14 +19,14 @@ public class GroupConverter {
                 .build();
     }
 
-    public static GroupExpenseDTO convertToExpenseDTO(Group group) {
+    public static GroupExpenseDTO convertToExpenseDTO(GroupView group) {
         return GroupExpenseDTO.builder()
-                .id(group.getId())
-                .groupName(group.getName())
-                .description(group.getDescription())
-                .createdBy(group.getCreatedBy().getEmail())
-                .createdAt(group.getCreatedAt())
-                .updatedAt(group.getUpdatedAt())
+                .id(group.id())
+                .groupName(group.name())
+                .description(group.description())
+                .createdBy(group.createdBy())
+                .createdAt(group.createdAt())
+                .updatedAt(group.updatedAt())
                 .build();
     }
 }
@@ -2,6 +2,7 @@ package com.github.splitbuddy.converter;
 
 
 import com.github.splitbuddy.dtos.GroupMemberDTO;
+import com.github.splitbuddy.dtos.GroupMemberView;
 import com.github.splitbuddy.entity.Group;
 import com.github.splitbuddy.entity.GroupMember;
 import com.github.splitbuddy.entity.GroupMemberId;
@@ -29,6 +30,14 @@ public class GroupMemberConverter {
                 .isActive(groupMember.isActive())
                 .build();
     }
+    public static GroupMemberDTO convertToGroupMemberDTO(GroupMemberView groupMember) {
+        return GroupMemberDTO.builder()
+                .email(groupMember.email())
+                .isAdmin(groupMember.isAdmin())
+                .isActive(groupMember.isActive())
+                .build();
+    }
+
     public static GroupMemberDTO  userToGroupMemberDTO(User user) {
         return GroupMemberDTO.builder()
                 .userId(user.getId())
@@ -0,0 +1,21 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, String> {
+
+    Optional<BalanceSnapshot> findFirstByGroupIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(String groupId,
+                                                                                                    Date coveredUntil);
+
+    Optional<BalanceSnapshot> findFirstByGroupIdOrderByCoveredUntilDesc(String groupId);
+
+    @Query("SELECT MAX(s.coveredUntil) FROM BalanceSnapshot s")
+    Date findLatestCoveredUntil();
+}
@@ -0,0 +1,29 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.entity.DebtComponentMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DebtComponentMemberRepository extends JpaRepository<DebtComponentMember, String> {
+
+    // unmanaged copies, so a lookup repeated after taking the merge lock never sees rows cached before it
+    @Query("SELECT new com.github.splitbuddy.entity.DebtComponentMember(dcm.memberEmail, dcm.componentId) " +
+            "FROM DebtComponentMember dcm WHERE dcm.memberEmail IN ?1")
+    List<DebtComponentMember> findAllByMemberEmailIn(Collection<String> memberEmails);
+
+    long countByComponentId(String componentId);
+
+    @Modifying
+    @Query("UPDATE DebtComponentMember dcm SET dcm.componentId = ?2 WHERE dcm.componentId IN ?1")
+    void relabel(Collection<String> componentIds, String targetComponentId);
+
+    // transaction scoped, released on commit or rollback; the two int form keeps these keys apart from bigint locks
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(?1, ?2)) AS component_lock", nativeQuery = true)
+    Integer acquireComponentLock(int namespace, int lockKey);
+}
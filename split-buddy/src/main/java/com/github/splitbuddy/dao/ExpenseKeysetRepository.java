@@ -0,0 +1,15 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.dtos.ExpenseCursor;
+import com.github.splitbuddy.dtos.ExpenseFilter;
+
+import java.util.List;
+
+public interface ExpenseKeysetRepository {
+
+    /**
+     * @return ids of at most {@code limit} matching expenses of the group, newest first and strictly after the cursor
+     * when one is given
+     */
+    List<String> findPageIds(String groupId, ExpenseFilter filter, ExpenseCursor after, int limit);
+}
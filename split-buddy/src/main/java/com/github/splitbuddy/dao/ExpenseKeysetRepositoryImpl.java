@@ -0,0 +1,66 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.dtos.ExpenseCursor;
+import com.github.splitbuddy.dtos.ExpenseFilter;
+import com.github.splitbuddy.entity.Expense;
+import com.github.splitbuddy.entity.ExpenseSplit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keyset pagination over (created_at, id): each page continues below the last row of the previous one, so the cost
+ * of a page does not depend on how deep into the history it is. Only ids are selected; the caller loads the page
+ * with its splits separately.
+ */
+public class ExpenseKeysetRepositoryImpl implements ExpenseKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<String> findPageIds(String groupId, ExpenseFilter filter, ExpenseCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Expense> expense = query.from(Expense.class);
+        Path<Date> createdAt = expense.get("createdAt");
+        Path<String> id = expense.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(expense.get("group").get("id"), groupId));
+        if (filter.getPaidBy() != null) {
+            predicates.add(cb.equal(expense.get("paidBy"), filter.getPaidBy()));
+        }
+        if (filter.getMember() != null) {
+            Subquery<String> share = query.subquery(String.class);
+            Root<ExpenseSplit> split = share.from(ExpenseSplit.class);
+            share.select(split.get("id"))
+                    .where(cb.equal(split.get("expense"), expense), cb.equal(split.get("owedBy"), filter.getMember()));
+            predicates.add(cb.or(cb.equal(expense.get("paidBy"), filter.getMember()), cb.exists(share)));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThan(createdAt, filter.getTo()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+        }
+
+        query.select(id)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,15 +1,42 @@
 package com.github.splitbuddy.dao;
 
+import com.github.splitbuddy.dtos.Balance;
+import com.github.splitbuddy.dtos.ExpenseView;
 import com.github.splitbuddy.entity.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, String> {
+public interface ExpenseRepository extends JpaRepository<Expense, String>, ExpenseKeysetRepository {
+
+    @Query("SELECT new com.github.splitbuddy.dtos.ExpenseView(e.id, e.description, e.totalAmount, e.paidBy, " +
+            "e.createdBy, e.createdAt) FROM Expense e WHERE e.id IN :ids ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseView> findAllViewsByIdIn(Collection<String> ids);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(e.paidBy, SUM(e.totalAmount)) FROM Expense e " +
+            "WHERE e.group.id = :groupId AND e.createdAt >= :from GROUP BY e.paidBy")
+    List<Balance> sumPaidByMemberSince(String groupId, Date from);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(e.paidBy, SUM(e.totalAmount)) FROM Expense e " +
+            "WHERE e.group.id = :groupId AND e.createdAt >= :from AND e.createdAt < :until GROUP BY e.paidBy")
+    List<Balance> sumPaidByMemberBetween(String groupId, Date from, Date until);
+
+    @Query("SELECT DISTINCT e.group.id FROM Expense e WHERE e.createdAt >= :from AND e.createdAt < :until")
+    List<String> findGroupIdsWithExpensesBetween(Date from, Date until);
 
-    @Query("SELECT e FROM Expense e JOIN FETCH e.splits WHERE e.group.id = :groupId")
-    List<Expense> findAllExpensesWithSplits(String groupId);
-}
\ No newline at end of file
+    // scalar rows over a cursor, nothing is attached to the persistence context; needs an open transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(e.paidBy, e.totalAmount) FROM Expense e WHERE e.group.id = :groupId")
+    Stream<Balance> streamPaidAmounts(String groupId);
+}
@@ -1,7 +1,39 @@
 package com.github.splitbuddy.dao;
 
+import com.github.splitbuddy.dtos.Balance;
+import com.github.splitbuddy.dtos.ExpenseSplitView;
 import com.github.splitbuddy.entity.ExpenseSplit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, String> {
-}
\ No newline at end of file
+
+    @Query("SELECT new com.github.splitbuddy.dtos.ExpenseSplitView(s.expense.id, s.id, s.owedBy, s.amountOwed, " +
+            "s.createdAt) FROM ExpenseSplit s WHERE s.expense.id IN :expenseIds")
+    List<ExpenseSplitView> findAllViewsByExpenseIdIn(Collection<String> expenseIds);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(s.owedBy, SUM(s.amountOwed)) FROM ExpenseSplit s " +
+            "WHERE s.expense.group.id = :groupId AND s.expense.createdAt >= :from GROUP BY s.owedBy")
+    List<Balance> sumOwedByMemberSince(String groupId, Date from);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(s.owedBy, SUM(s.amountOwed)) FROM ExpenseSplit s " +
+            "WHERE s.expense.group.id = :groupId AND s.expense.createdAt >= :from AND s.expense.createdAt < :until " +
+            "GROUP BY s.owedBy")
+    List<Balance> sumOwedByMemberBetween(String groupId, Date from, Date until);
+
+    // scalar rows over a cursor, nothing is attached to the persistence context; needs an open transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(s.owedBy, s.amountOwed) FROM ExpenseSplit s " +
+            "WHERE s.expense.group.id = :groupId")
+    Stream<Balance> streamOwedAmounts(String groupId);
+}
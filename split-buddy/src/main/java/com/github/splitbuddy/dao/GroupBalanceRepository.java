@@ -0,0 +1,47 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.dtos.Balance;
+import com.github.splitbuddy.entity.GroupBalance;
+import com.github.splitbuddy.entity.GroupBalanceId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, GroupBalanceId> {
+
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(gb.groupBalanceId.memberEmail, gb.netBalance) " +
+            "FROM GroupBalance gb WHERE gb.groupBalanceId.groupId = ?1")
+    List<Balance> findBalancesByGroupId(String groupId);
+
+    @Query("SELECT gb FROM GroupBalance gb WHERE gb.groupBalanceId.groupId IN ?1 AND gb.groupBalanceId.memberEmail = ?2")
+    List<GroupBalance> findAllByGroupIdsAndMemberEmail(Collection<String> groupIds, String memberEmail);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.Balance(gb.groupBalanceId.memberEmail, SUM(gb.netBalance)) " +
+            "FROM GroupBalance gb, Group g, DebtComponentMember dcm " +
+            "WHERE g.id = gb.groupBalanceId.groupId AND g.isDeleted = false " +
+            "AND dcm.memberEmail = gb.groupBalanceId.memberEmail AND dcm.componentId = ?1 " +
+            "GROUP BY gb.groupBalanceId.memberEmail")
+    List<Balance> sumBalancesByComponentId(String componentId);
+
+    // declares the touched table, otherwise Hibernate treats the statement as touching every table and clears the whole
+    // second-level cache on each call
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "group_balances"))
+    @Query(value = "INSERT INTO group_balances (group_id, member_email, net_balance_minor, updated_at) VALUES (?1, ?2, ?3, now()) " +
+            "ON CONFLICT (group_id, member_email) DO UPDATE " +
+            "SET net_balance_minor = group_balances.net_balance_minor + EXCLUDED.net_balance_minor, updated_at = now()", nativeQuery = true)
+    void applyDelta(String groupId, String memberEmail, long delta);
+
+    @Modifying
+    @Query("DELETE FROM GroupBalance gb WHERE gb.groupBalanceId.groupId = ?1")
+    void deleteAllByGroupId(String groupId);
+}
@@ -0,0 +1,17 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.entity.GroupChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupChangeRepository extends JpaRepository<GroupChange, String> {
+
+    List<GroupChange> findAllByGroupIdAndSequenceGreaterThanOrderBySequence(String groupId, long sequence);
+
+    @Query("SELECT MIN(gc.sequence) FROM GroupChange gc WHERE gc.groupId = ?1")
+    Long findFirstSequence(String groupId);
+}
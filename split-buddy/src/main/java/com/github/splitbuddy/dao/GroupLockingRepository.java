@@ -0,0 +1,14 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.entity.Group;
+
+import java.util.Optional;
+
+public interface GroupLockingRepository {
+
+    /**
+     * Takes the group row lock and returns the group with its current state, also when the persistence context
+     * already held an older copy of it.
+     */
+    Optional<Group> findByIdForUpdate(String groupId);
+}
@@ -0,0 +1,34 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.entity.Group;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Optional;
+
+/**
+ * A locking query hands back a group the persistence context already manages without re-reading it, so a writer that
+ * loaded the group before taking the lock would flush a stale version. The group is found first, usually from the
+ * second-level cache, and then refreshed under the lock, which is a single {@code SELECT ... FOR UPDATE}.
+ * <p>
+ * A group this transaction has locked already is returned as is: its state is current because no one else can write
+ * the row, and a refresh would throw away changes not flushed yet, such as a version bump.
+ */
+public class GroupLockingRepositoryImpl implements GroupLockingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Group> findByIdForUpdate(String groupId) {
+        Group group = entityManager.find(Group.class, groupId);
+        if (group == null) {
+            return Optional.empty();
+        }
+        if (entityManager.getLockMode(group) != LockModeType.PESSIMISTIC_WRITE) {
+            entityManager.refresh(group, LockModeType.PESSIMISTIC_WRITE);
+        }
+        return Optional.of(group);
+    }
+}
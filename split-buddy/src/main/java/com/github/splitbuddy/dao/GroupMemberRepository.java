@@ -1,17 +1,40 @@
 package com.github.splitbuddy.dao;
 
+import com.github.splitbuddy.cache.CacheRegions;
+import com.github.splitbuddy.dtos.GroupMemberView;
 import com.github.splitbuddy.entity.GroupMember;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface GroupMemberRepository extends JpaRepository<GroupMember, String> {
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.GROUP_MEMBER_QUERIES)})
     @Query("SELECT gm FROM GroupMember gm WHERE gm.groupMemberId.group.id = ?1 AND gm.groupMemberId.memberEmail " +
             "= ?2 AND gm.isActive = ?3")
     Optional<GroupMember> findByGroupIdMemberEmailAndIsActive(String groupId, String email, boolean isActive);
 
+    @Query("SELECT gm.groupMemberId.memberEmail FROM GroupMember gm WHERE gm.groupMemberId.group.id = ?1")
+    List<String> findAllMemberEmails(String groupId);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.GroupMemberView(gm.groupMemberId.group.id, " +
+            "gm.groupMemberId.memberEmail, gm.isAdmin, gm.isActive) FROM GroupMember gm " +
+            "WHERE gm.groupMemberId.group.id IN ?1")
+    List<GroupMemberView> findAllViewsByGroupIdIn(Collection<String> groupIds);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.GroupMemberView(gm.groupMemberId.group.id, " +
+            "gm.groupMemberId.memberEmail, gm.isAdmin, gm.isActive) FROM GroupMember gm " +
+            "WHERE gm.groupMemberId.group.id = ?1 AND gm.groupMemberId.memberEmail IN ?2")
+    List<GroupMemberView> findAllViewsByGroupIdAndMemberEmailIn(String groupId, Collection<String> emails);
+
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.github.splitbuddy.dao;
 
+import com.github.splitbuddy.dtos.GroupVersion;
+import com.github.splitbuddy.dtos.GroupView;
 import com.github.splitbuddy.entity.Group;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,10 +13,36 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface GroupRepository extends JpaRepository<Group, String> {
+public interface GroupRepository extends JpaRepository<Group, String>, GroupLockingRepository {
 
-    @Query("SELECT g FROM Group g JOIN GroupMember gm ON gm.groupMemberId.group.id = g.id where gm.groupMemberId.memberEmail = ?1")
-    List<Group> findAllByUserId(String email);
+    @EntityGraph(Group.WITH_MEMBERS)
+    Optional<Group> findWithMembersByIdAndIsDeleted(String groupId, boolean isDeleted);
 
-    Optional<Group> findByIdAndIsDeleted(String groupId, boolean isDeleted);
+    @Query("SELECT new com.github.splitbuddy.dtos.GroupView(g.id, g.name, g.description, u.email, g.createdAt, " +
+            "g.updatedAt, g.balancesInitialized) FROM Group g LEFT JOIN g.createdBy u WHERE g.id = ?1 AND g.isDeleted = false")
+    Optional<GroupView> findActiveViewById(String groupId);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.GroupView(g.id, g.name, g.description, u.email, g.createdAt, " +
+            "g.updatedAt, g.balancesInitialized) FROM Group g LEFT JOIN g.createdBy u " +
+            "JOIN GroupMember gm ON gm.groupMemberId.group.id = g.id " +
+            "WHERE gm.groupMemberId.memberEmail = ?1 AND g.isDeleted = false")
+    List<GroupView> findAllActiveViewsByUserId(String email);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.GroupVersion(g.id, g.version, g.updatedAt) FROM Group g " +
+            "WHERE g.id = ?1 AND g.isDeleted = false")
+    Optional<GroupVersion> findActiveVersionById(String groupId);
+
+    @Query("SELECT new com.github.splitbuddy.dtos.GroupVersion(g.id, g.version, g.updatedAt) FROM Group g " +
+            "JOIN GroupMember gm ON gm.groupMemberId.group.id = g.id " +
+            "WHERE gm.groupMemberId.memberEmail = ?1 AND g.isDeleted = false ORDER BY g.id")
+    List<GroupVersion> findAllActiveVersionsByUserId(String email);
+
+    @Query("SELECT DISTINCT g FROM Group g JOIN g.members gm, DebtComponentMember dcm " +
+            "WHERE dcm.memberEmail = gm.groupMemberId.memberEmail AND dcm.componentId = ?1 AND g.isDeleted = false " +
+            "AND (g.balancesInitialized IS NULL OR g.balancesInitialized = false)")
+    List<Group> findAllUninitializedByComponentId(String componentId);
+
+    @Query("SELECT g.id FROM Group g WHERE (g.componentsLinked IS NULL OR g.componentsLinked = false) AND g.id > ?1 " +
+            "ORDER BY g.id")
+    List<String> findIdsWithoutComponentsAfter(String afterId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.github.splitbuddy.dao;
+
+import com.github.splitbuddy.entity.NotificationOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    /**
+     * Entries of recipients without a live claim, taken round robin: the oldest entry of every recipient first, then
+     * the second oldest, and so on. A recipient's entries in the result are therefore always its oldest ones, in
+     * order, wherever the limit cuts. An entry waiting to be retried holds a claim until its retry time, which keeps
+     * its recipient out for the backoff.
+     */
+    @Query(value = "SELECT o.* FROM (" +
+            "SELECT e.*, row_number() OVER (PARTITION BY e.recipient " +
+            "ORDER BY e.recipient_sequence NULLS FIRST, e.id) AS position " +
+            "FROM notification_outbox e) o " +
+            "WHERE NOT EXISTS (SELECT 1 FROM notification_outbox c " +
+            "WHERE c.recipient = o.recipient AND c.claimed_until >= ?1) " +
+            "ORDER BY o.position, o.created_at, o.id LIMIT ?2", nativeQuery = true)
+    List<NotificationOutboxEntry> findClaimable(Date now, int limit);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claim(Collection<Long> ids, Date claimedUntil);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int release(Collection<Long> ids);
+
+    // the claim is kept until the retry is due, so the entry and everything behind it wait out the backoff
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry e SET e.claimedUntil = :retryAt, " +
+            "e.failedAttempts = COALESCE(e.failedAttempts, 0) + 1 WHERE e.id IN :ids")
+    int releaseFailed(Collection<Long> ids, Date retryAt);
+
+    @Query("SELECT MAX(e.recipientSequence) FROM NotificationOutboxEntry e WHERE e.recipient = :recipient")
+    Long findMaxRecipientSequence(String recipient);
+
+    // transaction scoped, released on commit or rollback; false when another node holds it
+    @Query(value = "SELECT pg_try_advisory_xact_lock(?1)", nativeQuery = true)
+    boolean tryAcquireRelayLock(long lockKey);
+
+    // transaction scoped; the two int form keeps these keys apart from bigint locks
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(?1, ?2)) AS recipient_lock", nativeQuery = true)
+    Integer acquireRecipientLock(int namespace, int lockKey);
+}
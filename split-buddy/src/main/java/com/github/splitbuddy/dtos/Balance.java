@@ -1,5 +1,6 @@
 package com.github.splitbuddy.dtos;
 
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -7,5 +8,6 @@ import lombok.Data;
 @AllArgsConstructor
 public class Balance {
     String email;
-    double amount;
+    @MinorUnits
+    long amount;
 }
@@ -0,0 +1,21 @@
+package com.github.splitbuddy.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExpenseCreationRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one expense is required")
+    @Size(max = 5000, message = "At most 5000 expenses can be added at once")
+    private List<ExpenseCreationRequest> expenses;
+}
@@ -0,0 +1,10 @@
+package com.github.splitbuddy.dtos;
+
+/**
+ * Tells the other nodes that an entity cached in {@code region} changed. Group memberships, keyed by group and member,
+ * carry the group id in {@code id} and the member in {@code memberEmail}. A {@code null} id stands for the whole
+ * region, used for entities whose ids are neither.
+ */
+public record CacheInvalidationMessage(String nodeId, String entityName, String region, String id,
+                                       String memberEmail) {
+}
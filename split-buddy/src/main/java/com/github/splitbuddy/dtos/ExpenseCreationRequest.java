@@ -1,6 +1,7 @@
 package com.github.splitbuddy.dtos;
 
 import com.github.splitbuddy.enums.SplitType;
+import com.github.splitbuddy.utils.MinorUnits;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -19,9 +20,10 @@ public class ExpenseCreationRequest {
     @NotBlank(message = "Expense description is required")
     private String description;
 
+    @MinorUnits
     @NotNull(message = "Total amount is required")
-    @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
-    private Double totalAmount;
+    @Min(value = 1, message = "Amount must be greater than zero")
+    private Long totalAmount;
 
     @NotBlank(message = "Paid by email is required")
     private String paidBy;
@@ -0,0 +1,29 @@
+package com.github.splitbuddy.dtos;
+
+import com.github.splitbuddy.exception.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a newest-first expense listing: the (created_at, id) of the last expense already returned. Encoded as
+ * an opaque url-safe string so clients treat it as a token.
+ */
+public record ExpenseCursor(Date createdAt, String id) {
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ExpenseCursor(new Date(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.splitbuddy.dtos;
 
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,7 +16,8 @@ import java.util.List;
 public class ExpenseDTO {
     private String expenseId;
     private String description;
-    private Double ExpenseAmount;
+    @MinorUnits
+    private long ExpenseAmount;
     private String paidBy;
     private String createdBy;
     private Date createdAt;
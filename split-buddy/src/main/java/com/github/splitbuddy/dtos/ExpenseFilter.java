@@ -0,0 +1,23 @@
+package com.github.splitbuddy.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Optional restrictions on an expense listing; {@code null} fields are ignored. {@code member} matches expenses the
+ * member paid for or has a share in, and the date range is [from, to).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseFilter {
+    private String paidBy;
+    private String member;
+    private Date from;
+    private Date to;
+}
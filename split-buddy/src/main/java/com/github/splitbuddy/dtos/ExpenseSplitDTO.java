@@ -1,6 +1,7 @@
 package com.github.splitbuddy.dtos;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +17,7 @@ import java.util.Date;
 public class ExpenseSplitDTO {
     private String expenseSplitId;
     private String owedBy;
-    private Double amountOwed;
+    @MinorUnits
+    private long amountOwed;
     private Date splitAt;
 }
@@ -0,0 +1,9 @@
+package com.github.splitbuddy.dtos;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of an expense split.
+ */
+public record ExpenseSplitView(String expenseId, String id, String owedBy, long amountOwed, Date createdAt) {
+}
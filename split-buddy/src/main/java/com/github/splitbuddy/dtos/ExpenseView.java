@@ -0,0 +1,12 @@
+package com.github.splitbuddy.dtos;
+
+import com.github.splitbuddy.entity.User;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of an expense without its splits, which are loaded separately as {@link ExpenseSplitView}.
+ */
+public record ExpenseView(String id, String description, long totalAmount, String paidBy, User createdBy,
+                          Date createdAt) {
+}
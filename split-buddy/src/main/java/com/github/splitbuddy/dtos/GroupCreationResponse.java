@@ -1,6 +1,7 @@
 package com.github.splitbuddy.dtos;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,8 +22,10 @@ public class GroupCreationResponse {
     private String createdBy;
     private Date createdAt;
     private Date updatedAt;
-    private Double amountToReceive;
-    private Double amountToPay;
+    @MinorUnits
+    private Long amountToReceive;
+    @MinorUnits
+    private Long amountToPay;
     private List<GroupExpenseDTO> groupExpenses;
     private List<GroupMemberDTO> members;
 }
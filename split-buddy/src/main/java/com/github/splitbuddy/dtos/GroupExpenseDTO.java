@@ -1,6 +1,7 @@
 package com.github.splitbuddy.dtos;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,7 +22,9 @@ public class GroupExpenseDTO {
     private String createdBy;
     private Date createdAt;
     private Date updatedAt;
-    private Double settlementAmount;
+    @MinorUnits
+    private Long settlementAmount;
     private List<GroupMemberDTO> members;
     private List<ExpenseDTO> expenseSplits;
+    private String expensesNextCursor;
 }
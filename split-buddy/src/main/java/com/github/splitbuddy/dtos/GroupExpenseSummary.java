@@ -1,5 +1,7 @@
 package com.github.splitbuddy.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class GroupExpenseSummary {
-    private Double totalSettlementAmount;
+    @MinorUnits
+    private long totalSettlementAmount;
     List<GroupExpenseDTO> groupExpenseSummary;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> incompleteGroupIds;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.github.splitbuddy.dtos;
+
+/**
+ * Read-only projection of a group membership.
+ */
+public record GroupMemberView(String groupId, String email, boolean isAdmin, boolean isActive) {
+}
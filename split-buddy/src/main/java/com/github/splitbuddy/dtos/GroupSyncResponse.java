@@ -0,0 +1,20 @@
+package com.github.splitbuddy.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSyncResponse {
+    private String groupId;
+    // pass back as since on the next sync
+    private long sequence;
+    // the changes could not be listed, refetch the whole group instead
+    private boolean resyncRequired;
+    private List<ExpenseDTO> expenses;
+    private List<GroupMemberDTO> members;
+}
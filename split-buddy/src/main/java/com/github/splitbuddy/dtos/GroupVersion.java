@@ -0,0 +1,10 @@
+package com.github.splitbuddy.dtos;
+
+import java.util.Date;
+
+/**
+ * The fields of a group that every cached read of it depends on: the version changes with expenses and members, the
+ * update time with name and description.
+ */
+public record GroupVersion(String id, Long version, Date updatedAt) {
+}
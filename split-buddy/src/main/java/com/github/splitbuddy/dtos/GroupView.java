@@ -0,0 +1,11 @@
+package com.github.splitbuddy.dtos;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of a group with the columns the group listings render, plus the ledger flag needed to read
+ * balances. Selected with a constructor expression, so nothing ends up in the persistence context.
+ */
+public record GroupView(String id, String name, String description, String createdBy, Date createdAt, Date updatedAt,
+                        Boolean balancesInitialized) {
+}
@@ -1,12 +1,16 @@
 package com.github.splitbuddy.dtos;
 
 
+import com.github.splitbuddy.utils.MinorUnits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public record IndividualShare(
         @NotBlank(message = "Owed by cannot be blank") String owedBy,
+        @MinorUnits
         @NotNull(message = "Amount owed cannot be null")
-        Double amountOwed,
+        @PositiveOrZero(message = "Amount owed cannot be negative")
+        Long amountOwed,
         Double percentage) {
 }
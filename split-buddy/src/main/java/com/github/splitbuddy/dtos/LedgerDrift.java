@@ -0,0 +1,17 @@
+package com.github.splitbuddy.dtos;
+
+import com.github.splitbuddy.utils.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDrift {
+    private String email;
+    @MinorUnits
+    private long ledgerAmount;
+    @MinorUnits
+    private long replayedAmount;
+}
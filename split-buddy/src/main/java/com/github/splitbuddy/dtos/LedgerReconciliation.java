@@ -0,0 +1,16 @@
+package com.github.splitbuddy.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerReconciliation {
+    private String groupId;
+    private List<LedgerDrift> drifts;
+    private boolean repaired;
+}
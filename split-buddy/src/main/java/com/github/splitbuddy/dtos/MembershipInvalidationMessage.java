@@ -0,0 +1,7 @@
+package com.github.splitbuddy.dtos;
+
+/**
+ * Tells the other nodes to drop their membership index entry of a group.
+ */
+public record MembershipInvalidationMessage(String nodeId, String groupId) {
+}
@@ -1,14 +1,18 @@
 package com.github.splitbuddy.dtos;
 
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class SettlementTransactionDTO {
     private String fromUser;
     private String toUser;
-    private Double amount;
+    @MinorUnits
+    private long amount;
 }
\ No newline at end of file
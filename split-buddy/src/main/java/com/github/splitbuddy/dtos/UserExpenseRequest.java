@@ -1,5 +1,6 @@
 package com.github.splitbuddy.dtos;
 
+import com.github.splitbuddy.utils.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,7 +14,8 @@ import java.util.List;
 public class UserExpenseRequest {
     private String email;
     private String description;
-    private Double amount;
+    @MinorUnits
+    private long amount;
     private String paidBy;
     private String createdBy;
     @Singular
@@ -0,0 +1,28 @@
+package com.github.splitbuddy.dtos;
+
+import java.util.Date;
+
+/**
+ * The claims of a token whose signature has been checked. Only what authentication needs is kept, so a verified token
+ * can be cached and reused without parsing it again. The user id, full name, role and email verification are only
+ * present in access tokens issued with embedded principal claims.
+ */
+public record VerifiedToken(String subject, String type, Date issuedAt, Date expiration, String userId,
+                            String fullName, String role, Boolean emailVerified) {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    public boolean isAccessToken() {
+        return ACCESS.equals(type);
+    }
+
+    // tokens embedded before the email verification claim existed lack it and are resolved from the database instead
+    public boolean hasPrincipalClaims() {
+        return userId != null && fullName != null && role != null && emailVerified != null;
+    }
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
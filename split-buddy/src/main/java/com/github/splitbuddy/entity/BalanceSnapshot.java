@@ -0,0 +1,49 @@
+package com.github.splitbuddy.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Per-member balances of a group covering every expense created before {@code coveredUntil}. Balances at any later
+ * point are the snapshot plus the expenses created since, so only recent activity ever has to be folded.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshots_group_covered_until",
+                columnNames = {"group_id", "covered_until"}))
+public class BalanceSnapshot {
+
+    @Id
+    private String id;
+
+    @Column(name = "group_id", nullable = false)
+    private String groupId;
+
+    // high-water mark: exclusive upper bound on the created_at of the expenses included
+    @Column(name = "covered_until", nullable = false)
+    private Date coveredUntil;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "balance_snapshot_entries", joinColumns = @JoinColumn(name = "snapshot_id"))
+    private List<BalanceSnapshotEntry> entries = new ArrayList<>();
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Date createdAt;
+}
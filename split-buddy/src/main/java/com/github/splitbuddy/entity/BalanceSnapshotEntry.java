@@ -0,0 +1,19 @@
+package com.github.splitbuddy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class BalanceSnapshotEntry {
+    @Column(name = "member_email", nullable = false)
+    private String memberEmail;
+
+    @Column(name = "net_balance_minor", nullable = false)
+    private long netBalance;
+}
@@ -0,0 +1,30 @@
+package com.github.splitbuddy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Connected component of the cross-group debt graph a member belongs to. Members who share a group, directly or
+ * through a chain of groups, have the same component id, so their balances can be settled against each other.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "debt_component_members",
+        indexes = @Index(name = "idx_debt_component_members_component_id", columnList = "component_id"))
+public class DebtComponentMember {
+
+    @Id
+    @Column(name = "member_email")
+    private String memberEmail;
+
+    @Column(name = "component_id", nullable = false)
+    private String componentId;
+}
@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.util.Date;
 import java.util.List;
@@ -16,8 +19,10 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "expenses")
-public class Expense {
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_group_id_created_at_id", columnList = "group_id, created_at, id"),
+        @Index(name = "idx_expenses_created_at", columnList = "created_at")})
+public class Expense implements Persistable<String> {
 
     @Id
     private String id;
@@ -25,8 +30,8 @@ public class Expense {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
 
-    @Column(nullable = false)
-    private Double totalAmount;
+    @Column(name = "total_amount_minor", nullable = false)
+    private long totalAmount;
 
     @Column(name = "paid_by", nullable = false)
     private String paidBy;
@@ -34,11 +39,16 @@ public class Expense {
     @Column(name = "created_by", nullable = false)
     private User createdBy;
 
-    @ManyToOne
+    // kept out of equals, hashCode and toString: the group is a proxy and the splits point back at this expense
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", referencedColumnName = "id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Group group;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "expense", fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "expense", fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<ExpenseSplit> splits;
 
     @CreationTimestamp
@@ -48,4 +58,17 @@ public class Expense {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Date updatedAt;
+
+    // ids are assigned up front, so without this save() would merge and select every new row before inserting it
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
 }
\ No newline at end of file
@@ -6,10 +6,14 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.util.Date;
 
@@ -19,17 +23,20 @@ import java.util.Date;
 @Builder
 @Entity
 @Table(name = "expense_splits")
-public class ExpenseSplit {
+public class ExpenseSplit implements Persistable<String> {
 
     @Id
     private String id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // the parent would recurse back into its splits and may be an uninitialized proxy
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "expense_id", referencedColumnName = "id",  nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Expense expense;
 
-    @Column(name = "amount_owed", nullable = false)
-    private Double amountOwed;
+    @Column(name = "amount_owed_minor", nullable = false)
+    private long amountOwed;
 
     @Column(name = "owed_by", nullable = false)
     private String owedBy;
@@ -41,4 +48,17 @@ public class ExpenseSplit {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Date updatedAt;
+
+    // same as Expense: lets save() persist new splits without a select
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
 }
\ No newline at end of file
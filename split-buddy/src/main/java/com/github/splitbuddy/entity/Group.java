@@ -1,9 +1,13 @@
 package com.github.splitbuddy.entity;
 
+import com.github.splitbuddy.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -15,8 +19,13 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Table(name = "groups")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GROUPS)
+@NamedEntityGraph(name = Group.WITH_MEMBERS, attributeNodes = @NamedAttributeNode("members"))
 public class Group {
 
+    public static final String WITH_MEMBERS = "Group.withMembers";
+
     @Id
     private String id;
 
@@ -26,17 +35,32 @@ public class Group {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @OneToMany(mappedBy = "groupMemberId.group", fetch = FetchType.EAGER, orphanRemoval = true)
+    // lazy associations stay out of equals, hashCode and toString so none of them triggers a load
+    @OneToMany(mappedBy = "groupMemberId.group", fetch = FetchType.LAZY, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<GroupMember> members = new HashSet<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", referencedColumnName = "id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User createdBy;
 
     @Column(name = "is_deleted")
     private boolean isDeleted;
 
+    @Column(name = "balances_initialized")
+    private Boolean balancesInitialized;
+
+    @Column(name = "components_linked")
+    private Boolean componentsLinked;
+
+    // bumped only through GroupChangeService.incrementVersion, under the group row lock so concurrent writers never
+    // lose an increment; doubles as the change sequence of the group change log
+    @Column(name = "version")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private Date createdAt;
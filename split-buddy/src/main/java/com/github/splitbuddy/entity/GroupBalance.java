@@ -0,0 +1,34 @@
+package com.github.splitbuddy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.util.Date;
+
+/**
+ * Running net position of a member inside a group: everything they paid minus everything they owe.
+ * Maintained incrementally whenever an expense is added so reads never have to replay the expense history.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "group_balances")
+public class GroupBalance {
+
+    @Id
+    private GroupBalanceId groupBalanceId;
+
+    @Column(name = "net_balance_minor", nullable = false)
+    private long netBalance;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Date updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.github.splitbuddy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class GroupBalanceId implements Serializable {
+    @Column(name = "group_id", nullable = false)
+    private String groupId;
+
+    @Column(name = "member_email", nullable = false)
+    private String memberEmail;
+}
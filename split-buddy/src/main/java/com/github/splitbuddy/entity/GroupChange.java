@@ -0,0 +1,71 @@
+package com.github.splitbuddy.entity;
+
+import com.github.splitbuddy.enums.GroupChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.util.Date;
+
+/**
+ * One entry of a group's change log. {@code sequence} is the group version the change was committed under, so all
+ * changes after a version a client has seen are exactly the entries with a higher sequence.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "group_changes",
+        indexes = @Index(name = "idx_group_changes_group_id_sequence", columnList = "group_id, sequence"))
+public class GroupChange implements Persistable<String> {
+
+    @Id
+    private String id;
+
+    @Column(name = "group_id", nullable = false)
+    private String groupId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private GroupChangeType changeType;
+
+    // expense id or member email, depending on the change type
+    @Column(name = "entity_id", nullable = false)
+    private String entityId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Date createdAt;
+
+    // written in batches, see Expense
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -1,11 +1,15 @@
 package com.github.splitbuddy.entity;
 
+import com.github.splitbuddy.cache.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.util.Date;
@@ -14,6 +18,8 @@ import java.util.Date;
 @Entity
 @NoArgsConstructor
 @Table(name = "group_members")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GROUP_MEMBERS)
 public class GroupMember {
 
     @Id
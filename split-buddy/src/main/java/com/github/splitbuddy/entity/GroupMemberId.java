@@ -7,19 +7,36 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 
+/**
+ * Key of a group membership. Equality uses the group id rather than the group, whose lazy proxy would have to be
+ * loaded and whose state, such as its version, changes while the key is held in hashed collections.
+ */
 @Data
 @NoArgsConstructor
 @Embeddable
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(onlyExplicitlyIncluded = true)
 public class GroupMemberId implements Serializable {
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", nullable = false, referencedColumnName = "id")
     @JsonIgnoreProperties({"groupMember"})
     private Group group;
 
     @Column(name = "member_email")
+    @EqualsAndHashCode.Include
+    @ToString.Include
     private String memberEmail;
+
+    // reading the id of a lazy proxy does not initialize it
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    private String groupId() {
+        return group == null ? null : group.getId();
+    }
 }
\ No newline at end of file
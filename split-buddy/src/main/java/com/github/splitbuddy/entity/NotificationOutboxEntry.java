@@ -0,0 +1,74 @@
+package com.github.splitbuddy.entity;
+
+import com.github.splitbuddy.enums.NotificationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * A notification waiting to be published. It is written in the transaction of the change it announces, so it exists
+ * exactly when that change committed, and is deleted once Kafka has acknowledged it. A relay claims the entry while
+ * sending it, and other relays skip its recipient until the claim is released or runs out. A failed send moves the
+ * claim to the time of the next attempt instead of releasing it.
+ * <p>
+ * The recipient sequence is assigned as the transaction commits, under a lock per recipient, so it follows the commit
+ * order of the notifications of one recipient. Entries of one transaction share it and are ordered by id.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_outbox",
+        indexes = {
+                @Index(name = "idx_notification_outbox_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_notification_outbox_recipient_sequence", columnList = "recipient, recipient_sequence")
+        })
+public class NotificationOutboxEntry {
+
+    // sequence ids keep the entries of one transaction in order and still allow batched inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    // template arguments as a JSON array
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String args;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Date createdAt;
+
+    @Column(name = "claimed_until")
+    private Date claimedUntil;
+
+    // null only for entries written before sequences existed, which are older than any sequenced one
+    @Column(name = "recipient_sequence")
+    private Long recipientSequence;
+
+    // sends that were not acknowledged, null when there was none
+    @Column(name = "failed_attempts")
+    private Integer failedAttempts;
+}
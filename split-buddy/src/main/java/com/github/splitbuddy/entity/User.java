@@ -1,11 +1,14 @@
 package com.github.splitbuddy.entity;
 
+import com.github.splitbuddy.cache.CacheRegions;
 import com.github.splitbuddy.enums.Role;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,6 +21,8 @@ import java.util.List;
 @Builder
 @Data
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,6 +38,18 @@ public enum EmailTemplate {
                     A new expense of %.2f has been added to group '%s'.
                     
                     
+                    Best regards,
+                    SplitBillsTeam"""
+    ),
+    EXPENSES_ADDED(
+            "New Expenses Added",
+            """
+                    Hello %s,
+                    
+                    
+                    %d new expenses with a total share of %.2f for you have been added to group '%s'.
+                    
+                    
                     Best regards,
                     SplitBillsTeam"""
     ),
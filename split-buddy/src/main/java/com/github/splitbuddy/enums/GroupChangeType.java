@@ -0,0 +1,7 @@
+package com.github.splitbuddy.enums;
+
+public enum GroupChangeType {
+    EXPENSE_ADDED,
+    MEMBER_ADDED,
+    MEMBER_REMOVED
+}
@@ -0,0 +1,6 @@
+package com.github.splitbuddy.enums;
+
+public enum IdGeneratorType {
+    UUID_V7,
+    SNOWFLAKE
+}
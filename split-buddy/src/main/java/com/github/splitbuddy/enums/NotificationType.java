@@ -4,6 +4,7 @@ public enum NotificationType {
     GROUP_CREATED,
     MEMBER_ADDED,
     EXPENSE_ADDED,
+    EXPENSES_ADDED,
     SPLIT_ASSIGNED,
     EXPENSE_SETTLED,
     OTP_GENERATED,
@@ -0,0 +1,5 @@
+package com.github.splitbuddy.enums;
+
+public enum SolverMode {
+    GREEDY, OPTIMAL
+}
@@ -0,0 +1,13 @@
+package com.github.splitbuddy.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Work turned away because the executor running it is saturated. It is expected under load and says nothing about the
+ * request itself, so it is answered with 503 and logged quietly.
+ */
+public class ServiceOverloadedException extends SplitBuddyException {
+    public ServiceOverloadedException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+}
@@ -67,7 +67,8 @@ public class SplitBuddyExceptionHandler extends BaseApiExceptionHandler {
         }));
     }
 
-    @ExceptionHandler({InvalidDataException.class, UserNotFoundException.class, UserAlreadyExistsException.class})
+    @ExceptionHandler({InvalidDataException.class, UserNotFoundException.class, UserAlreadyExistsException.class,
+            SplitBuddyException.class})
     public ResponseEntity<SplitBuddyAPIErrorResponse> handleInvalidDataException(SplitBuddyException exception) {
         log.error("Invalid data exception occurred: {}", buildErrorMap(exception, exception.getMessage()));
 
@@ -77,6 +78,18 @@ public class SplitBuddyExceptionHandler extends BaseApiExceptionHandler {
                         .detail(exception.getMessage())));
     }
 
+    // rejections pile up exactly when an executor is saturated, so they are not logged as errors
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<SplitBuddyAPIErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException exception) {
+        log.warn("Request rejected: {}", exception.getMessage());
+
+        return status(HttpStatus.SERVICE_UNAVAILABLE).body(buildErrorResponse(builder ->
+                builder.title(exception.getTitle())
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .detail(exception.getMessage())));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<SplitBuddyAPIErrorResponse> handleUnknownException(Exception ex) {
         log.error("Unknown exception occurred: {}", buildErrorMap(ex, "Unknown error"));
@@ -1,6 +1,9 @@
 package com.github.splitbuddy.filter;
 
+import com.github.splitbuddy.dtos.VerifiedToken;
+import com.github.splitbuddy.service.TokenRevocationService;
 import com.github.splitbuddy.utils.JwtUtils;
+import com.github.splitbuddy.utils.UserUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,6 +33,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -46,16 +50,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            final String jwt = authorizationHeader.substring(7);
-            if (!jwtUtils.isValidAccessToken(jwt)) {
+            final VerifiedToken token = jwtUtils.verify(authorizationHeader.substring(7));
+            if (!token.isAccessToken()) {
                 setInvalidTokenResponse(response);
                 return;
             }
 
-            final String userName = jwtUtils.extractUsername(jwt);
+            final String userName = token.subject();
 
             if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
+                UserDetails userDetails;
+                if (token.hasPrincipalClaims()) {
+                    // the principal comes from the token itself and can lag the stored user, as TokenRevocationService
+                    // describes
+                    if (tokenRevocationService.isRevoked(token)) {
+                        setInvalidTokenResponse(response);
+                        return;
+                    }
+                    userDetails = UserUtil.principalOf(token);
+                } else {
+                    userDetails = userDetailsService.loadUserByUsername(userName);
+                }
 
                 if (userDetails == null) {
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -64,7 +79,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                if (jwtUtils.isTokenValid(jwt)) {
+                if (!token.isExpired()) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
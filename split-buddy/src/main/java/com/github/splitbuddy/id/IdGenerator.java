@@ -0,0 +1,10 @@
+package com.github.splitbuddy.id;
+
+/**
+ * Source of entity ids. Ids are fixed-width lowercase hex strings whose lexicographic order follows creation time, so
+ * inserts land at the right edge of the primary key index. Implementations must be thread safe without locking.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,44 @@
+package com.github.splitbuddy.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * RFC 9562 UUID version 7 rendered as 32 hex digits: a 48-bit millisecond timestamp, a 12-bit counter that keeps ids
+ * from the same millisecond ordered (method 1 of the RFC) and 62 random bits. When the counter overflows it borrows
+ * the next millisecond, and a clock that steps back never produces a smaller id.
+ */
+public class UuidV7IdGenerator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    // millisecond timestamp and counter packed as (timestamp << COUNTER_BITS) | counter
+    private final AtomicLong lastTick = new AtomicLong();
+    private final LongSupplier clock;
+
+    public UuidV7IdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7IdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long tick = lastTick.updateAndGet(previous -> Math.max(previous + 1, now));
+
+        long timestamp = tick >>> COUNTER_BITS;
+        long counter = tick & ((1L << COUNTER_BITS) - 1);
+        long mostSignificantBits = (timestamp << 16) | (0x7L << 12) | counter;
+        long leastSignificantBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return toHex(mostSignificantBits) + toHex(leastSignificantBits);
+    }
+
+    private static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+}
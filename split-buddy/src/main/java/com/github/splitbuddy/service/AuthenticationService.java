@@ -1,5 +1,6 @@
 package com.github.splitbuddy.service;
 
+import com.github.splitbuddy.cache.CachedUserDetailsService;
 import com.github.splitbuddy.dao.UserRepository;
 import com.github.splitbuddy.dtos.*;
 import com.github.splitbuddy.entity.User;
@@ -49,6 +50,8 @@ public class AuthenticationService {
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final CachedUserDetailsService cachedUserDetailsService;
+    private final TokenRevocationService tokenRevocationService;
     private final RestTemplate restTemplate;
     private final RedisService redisService;
     private final NotificationService notificationService;
@@ -75,6 +78,8 @@ public class AuthenticationService {
         });
         User user = createUser(request);
         userRepository.save(user);
+        cachedUserDetailsService.evict(request.email());
+        tokenRevocationService.revokeTokens(request.email());
         return buildRegistrationResponse(request);
     }
 
@@ -89,7 +94,7 @@ public class AuthenticationService {
 
     private User createUser(RegisterRequest request) {
         return User.builder()
-                .id(SplitUtil.generateUUID())
+                .id(SplitUtil.generateId())
                 .email(request.email())
                 .fullName(request.fullName())
                 .password(passwordEncoder.encode(request.password()))
@@ -110,7 +115,7 @@ public class AuthenticationService {
                         .build();
             }
 
-            var token = jwtUtils.generateToken(user.getUsername());
+            var token = jwtUtils.generateToken(user);
             var refreshToken = jwtUtils.generateRefreshToken(user.getUsername());
             final var redisRefreshKey = sha256Hex(user.getEmail() + "_refresh_token");
             redisService.put(redisRefreshKey, refreshToken,
@@ -122,6 +127,8 @@ public class AuthenticationService {
                     .build();
         } catch (AuthenticationException e) {
             throw new InvalidDataException("username/password is not correct");
+        } catch (SplitBuddyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error while logging in", e);
             throw new SplitBuddyException("Error while logging in", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -152,14 +159,15 @@ public class AuthenticationService {
             ResponseEntity<Map> userInfoResponse = restTemplate.getForEntity(userInfoUrl, Map.class);
             final var email = extractParam(userInfoResponse, "email", "Email not found in user info response");
 
+            User user;
             try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                user = (User) userDetailsService.loadUserByUsername(email);
             } catch (UsernameNotFoundException exception) {
-                User user = User.builder().email(email).fullName(email.split("@")[0]).role(Role.USER)
+                user = User.builder().id(SplitUtil.generateId()).email(email).fullName(email.split("@")[0]).role(Role.USER)
                         .password(passwordEncoder.encode(UUID.randomUUID().toString())).build();
                 userRepository.save(user);
             }
-            final var token = jwtUtils.generateToken(email);
+            final var token = jwtUtils.generateToken(user);
             final var refreshToken = jwtUtils.generateRefreshToken(email);
             return LoginResponse.builder().accessToken(token).refreshToken(refreshToken).build();
         } catch (Exception exception) {
@@ -199,6 +207,8 @@ public class AuthenticationService {
                 .ifPresent(user -> {
                     user.setIsEmailVerified(true);
                     userRepository.save(user);
+                    cachedUserDetailsService.evict(user.getEmail());
+                    tokenRevocationService.revokeTokens(user.getEmail());
                     redisService.delete(redisKey);
                 });
     }
@@ -221,12 +231,13 @@ public class AuthenticationService {
     public LoginResponse refreshToken(String refreshToken) {
         Assert.hasText(refreshToken, "Refresh token must not be empty");
         try {
-            final var userName = jwtUtils.extractUsername(refreshToken);
+            final var verifiedToken = jwtUtils.verify(refreshToken);
+            final var userName = verifiedToken.subject();
             if (userName == null) {
                 throw new InvalidDataException("Invalid refresh token");
             }
-            validateRefreshToken(userName, refreshToken);
-            String newAccessToken = jwtUtils.generateToken(userName);
+            validateRefreshToken(userName, verifiedToken, refreshToken);
+            String newAccessToken = jwtUtils.generateToken((User) cachedUserDetailsService.loadUserByUsername(userName));
             return LoginResponse.builder()
                     .accessToken(newAccessToken)
                     .refreshToken(refreshToken)
@@ -241,9 +252,9 @@ public class AuthenticationService {
         }
     }
 
-    private void validateRefreshToken(String userName, String refreshToken) {
+    private void validateRefreshToken(String userName, VerifiedToken verifiedToken, String refreshToken) {
 
-        if (!jwtUtils.isTokenValid(refreshToken)) {
+        if (verifiedToken.isExpired()) {
             throw new InvalidDataException("Refresh token has expired");
         }
         final var refreshKey = sha256Hex(userName + "_refresh_token");
@@ -0,0 +1,221 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.ExpenseRepository;
+import com.github.splitbuddy.dao.ExpenseSplitRepository;
+import com.github.splitbuddy.dao.GroupBalanceRepository;
+import com.github.splitbuddy.dao.GroupRepository;
+import com.github.splitbuddy.dtos.Balance;
+import com.github.splitbuddy.dtos.GroupView;
+import com.github.splitbuddy.dtos.LedgerDrift;
+import com.github.splitbuddy.dtos.LedgerReconciliation;
+import com.github.splitbuddy.entity.Expense;
+import com.github.splitbuddy.entity.ExpenseSplit;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupBalance;
+import com.github.splitbuddy.entity.GroupBalanceId;
+import com.github.splitbuddy.exception.InvalidDataException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerService {
+
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final GroupChangeService groupChangeService;
+
+    @Transactional
+    public Map<String, Long> getNetBalances(Group group) {
+        ensureInitialized(group);
+        Map<String, Long> balances = new HashMap<>();
+        for (Balance balance : groupBalanceRepository.findBalancesByGroupId(group.getId())) {
+            balances.put(balance.getEmail(), balance.getAmount());
+        }
+        return balances;
+    }
+
+    @Transactional
+    public long getNetBalance(GroupView group, String memberEmail) {
+        ensureInitialized(group.id(), group.balancesInitialized());
+        return groupBalanceRepository.findById(new GroupBalanceId(group.id(), memberEmail))
+                .map(GroupBalance::getNetBalance)
+                .orElse(0L);
+    }
+
+    /**
+     * Loads one member's balance in several groups with a single query, keyed by group id. Only that member's ledger
+     * rows are read, so the cost grows with the number of groups and not with their size or expense history.
+     */
+    @Transactional
+    public Map<String, Long> getNetBalances(Collection<GroupView> groups, String memberEmail) {
+        Map<String, Long> balancesByGroup = new HashMap<>();
+        for (GroupView group : groups) {
+            ensureInitialized(group.id(), group.balancesInitialized());
+            balancesByGroup.put(group.id(), 0L);
+        }
+        for (GroupBalance balance : groupBalanceRepository.findAllByGroupIdsAndMemberEmail(balancesByGroup.keySet(), memberEmail)) {
+            balancesByGroup.put(balance.getGroupBalanceId().getGroupId(), balance.getNetBalance());
+        }
+        return balancesByGroup;
+    }
+
+    @Transactional
+    public void initialize(Collection<Group> groups) {
+        groups.forEach(this::ensureInitialized);
+    }
+
+    /**
+     * Builds the ledger of a group created before the ledger existed. Expense writers call this before saving any
+     * expense row: the rebuild reads the expense history, which flushes pending expenses into it, so a rebuild run
+     * after the write would count the new expense once more when its delta is applied.
+     */
+    @Transactional
+    public void initialize(Group group) {
+        ensureInitialized(group);
+    }
+
+    /**
+     * Applies the effect of a freshly saved expense to the ledger. Must run inside the transaction that saved the
+     * expense so the ledger can never drift from the expense history, and the ledger must have been
+     * {@linkplain #initialize(Group) initialized} before the expense was saved.
+     */
+    @Transactional
+    public void recordExpense(Group group, Expense expense, List<ExpenseSplit> splits) {
+        requireInitialized(group);
+
+        // sorted so concurrent writers always lock ledger rows in the same order
+        Map<String, Long> deltas = new TreeMap<>();
+        addDeltas(deltas, expense, splits);
+        deltas.forEach((email, delta) -> groupBalanceRepository.applyDelta(group.getId(), email, delta));
+    }
+
+    /**
+     * Batch variant of {@link #recordExpense}: the effects of all expenses are summed first, so the ledger is written
+     * once per member however many expenses there are. Splits are taken from each expense.
+     */
+    @Transactional
+    public void recordExpenses(Group group, Collection<Expense> expenses) {
+        requireInitialized(group);
+
+        Map<String, Long> deltas = new TreeMap<>();
+        for (Expense expense : expenses) {
+            addDeltas(deltas, expense, expense.getSplits());
+        }
+        deltas.forEach((email, delta) -> groupBalanceRepository.applyDelta(group.getId(), email, delta));
+    }
+
+    private static void addDeltas(Map<String, Long> deltas, Expense expense, List<ExpenseSplit> splits) {
+        deltas.merge(expense.getPaidBy(), expense.getTotalAmount(), Long::sum);
+        for (ExpenseSplit split : splits) {
+            deltas.merge(split.getOwedBy(), -split.getAmountOwed(), Long::sum);
+        }
+    }
+
+    private static void requireInitialized(Group group) {
+        if (!Boolean.TRUE.equals(group.getBalancesInitialized())) {
+            throw new IllegalStateException("Balance ledger of group id: " + group.getId()
+                    + " must be initialized before its expenses are written");
+        }
+    }
+
+    /**
+     * Groups created before the ledger existed have no balance rows yet. The first access rebuilds them once from
+     * the expense history while holding the group row lock, so concurrent writers cannot double count.
+     */
+    private void ensureInitialized(Group group) {
+        if (!Boolean.TRUE.equals(group.getBalancesInitialized())) {
+            ensureInitialized(group.getId(), false);
+            group.setBalancesInitialized(true);
+        }
+    }
+
+    private void ensureInitialized(String groupId, Boolean balancesInitialized) {
+        if (Boolean.TRUE.equals(balancesInitialized)) {
+            return;
+        }
+        Group locked = groupRepository.findByIdForUpdate(groupId)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
+        if (Boolean.TRUE.equals(locked.getBalancesInitialized())) {
+            return;
+        }
+
+        log.info("Initializing balance ledger for group id: {}", groupId);
+        groupBalanceRepository.deleteAllByGroupId(groupId);
+        balanceSnapshotService.getNetBalances(groupId)
+                .forEach((email, balance) -> groupBalanceRepository.applyDelta(groupId, email, balance));
+        locked.setBalancesInitialized(true);
+        groupRepository.save(locked);
+    }
+
+    /**
+     * Compares the ledger of a group with a full replay of its expense history and, when asked, overwrites the
+     * ledger with the replayed balances. Holds the group row lock, which expense writers take first, so no expense
+     * can land between the replay and the repair.
+     */
+    @Transactional
+    public LedgerReconciliation reconcile(String groupId, boolean repair) {
+        groupRepository.findByIdForUpdate(groupId)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
+
+        Map<String, Long> ledger = new HashMap<>();
+        for (Balance balance : groupBalanceRepository.findBalancesByGroupId(groupId)) {
+            ledger.put(balance.getEmail(), balance.getAmount());
+        }
+        Map<String, Long> replayed = replayNetBalances(groupId);
+
+        List<LedgerDrift> drifts = new ArrayList<>();
+        Set<String> emails = new TreeSet<>(ledger.keySet());
+        emails.addAll(replayed.keySet());
+        for (String email : emails) {
+            long ledgerAmount = ledger.getOrDefault(email, 0L);
+            long replayedAmount = replayed.getOrDefault(email, 0L);
+            if (ledgerAmount != replayedAmount) {
+                drifts.add(new LedgerDrift(email, ledgerAmount, replayedAmount));
+            }
+        }
+
+        boolean repaired = repair && !drifts.isEmpty();
+        if (repaired) {
+            log.warn("Repairing {} drifted ledger balances for group id: {}", drifts.size(), groupId);
+            groupBalanceRepository.deleteAllByGroupId(groupId);
+            replayed.forEach((email, balance) -> groupBalanceRepository.applyDelta(groupId, email, balance));
+            // settlement plans and ETags are keyed by the group version
+            groupChangeService.incrementVersion(groupId);
+        }
+        return new LedgerReconciliation(groupId, drifts, repaired);
+    }
+
+    /**
+     * Replays the expense history row by row over database cursors and folds it into per-member balances. Only the
+     * running totals are kept, so memory stays flat however long the history is.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> replayNetBalances(String groupId) {
+        log.info("Replaying net balances for group id: {}", groupId);
+        Map<String, Long> balances = new TreeMap<>();
+        try (Stream<Balance> paidAmounts = expenseRepository.streamPaidAmounts(groupId)) {
+            paidAmounts.forEach(paid -> balances.merge(paid.getEmail(), paid.getAmount(), Long::sum));
+        }
+        try (Stream<Balance> owedAmounts = expenseSplitRepository.streamOwedAmounts(groupId)) {
+            owedAmounts.forEach(owed -> balances.merge(owed.getEmail(), -owed.getAmount(), Long::sum));
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.BalanceSnapshotRepository;
+import com.github.splitbuddy.dao.ExpenseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Periodically snapshots every group that had expenses since the previous run. Cut-offs are aligned to the interval
+ * so all nodes pick the same one and a duplicate snapshot is rejected by its unique key. The lag keeps the cut-off
+ * behind expenses whose transaction may still be in flight.
+ */
+@Slf4j
+@Component
+public class BalanceSnapshotJob {
+
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final ExpenseRepository expenseRepository;
+    private final long intervalMillis;
+    private final long lagMillis;
+    private Date lastCutoff;
+
+    public BalanceSnapshotJob(BalanceSnapshotService balanceSnapshotService,
+                              BalanceSnapshotRepository balanceSnapshotRepository, ExpenseRepository expenseRepository,
+                              @Value("${balance.snapshot.interval-ms:3600000}") long intervalMillis,
+                              @Value("${balance.snapshot.lag-ms:300000}") long lagMillis) {
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.expenseRepository = expenseRepository;
+        this.intervalMillis = intervalMillis;
+        this.lagMillis = lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${balance.snapshot.interval-ms:3600000}",
+            initialDelayString = "${balance.snapshot.initial-delay-ms:60000}")
+    public void takeSnapshots() {
+        Date cutoff = new Date((System.currentTimeMillis() - lagMillis) / intervalMillis * intervalMillis);
+        if (lastCutoff == null) {
+            Date latestCoveredUntil = balanceSnapshotRepository.findLatestCoveredUntil();
+            lastCutoff = latestCoveredUntil == null ? new Date(0) : latestCoveredUntil;
+        }
+        if (!cutoff.after(lastCutoff)) {
+            return;
+        }
+
+        List<String> groupIds = expenseRepository.findGroupIdsWithExpensesBetween(lastCutoff, cutoff);
+        log.info("Taking balance snapshots for {} active groups until {}", groupIds.size(), cutoff);
+        for (String groupId : groupIds) {
+            try {
+                balanceSnapshotService.takeSnapshot(groupId, cutoff);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Balance snapshot for group id: {} was already taken by another node", groupId);
+            } catch (Exception e) {
+                // the next snapshot of this group still builds on its last good one
+                log.error("Failed to take balance snapshot for group id: {}", groupId, e);
+            }
+        }
+        lastCutoff = cutoff;
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.BalanceSnapshotRepository;
+import com.github.splitbuddy.dao.ExpenseRepository;
+import com.github.splitbuddy.dao.ExpenseSplitRepository;
+import com.github.splitbuddy.dtos.Balance;
+import com.github.splitbuddy.entity.BalanceSnapshot;
+import com.github.splitbuddy.entity.BalanceSnapshotEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.github.splitbuddy.utils.SplitUtil.generateId;
+
+/**
+ * Answers balance questions from the closest snapshot plus the expenses created after it, so the cost follows the
+ * activity since the last snapshot rather than the lifetime of the group.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceSnapshotService {
+
+    private static final Date EPOCH = new Date(0);
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+
+    /**
+     * @return net balance of every member counting all expenses of the group
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getNetBalances(String groupId) {
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository.findFirstByGroupIdOrderByCoveredUntilDesc(groupId);
+        Date from = snapshot.map(BalanceSnapshot::getCoveredUntil).orElse(EPOCH);
+        return fold(snapshot, expenseRepository.sumPaidByMemberSince(groupId, from),
+                expenseSplitRepository.sumOwedByMemberSince(groupId, from));
+    }
+
+    /**
+     * @return net balance of every member counting only the expenses created before {@code asOf}
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getNetBalancesAsOf(String groupId, Date asOf) {
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+                .findFirstByGroupIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(groupId, asOf);
+        Date from = snapshot.map(BalanceSnapshot::getCoveredUntil).orElse(EPOCH);
+        return fold(snapshot, expenseRepository.sumPaidByMemberBetween(groupId, from, asOf),
+                expenseSplitRepository.sumOwedByMemberBetween(groupId, from, asOf));
+    }
+
+    /**
+     * Stores the balances covering every expense created before {@code coveredUntil}, built from the previous
+     * snapshot. Does nothing when that snapshot already exists.
+     */
+    @Transactional
+    public void takeSnapshot(String groupId, Date coveredUntil) {
+        Optional<BalanceSnapshot> previous = balanceSnapshotRepository
+                .findFirstByGroupIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(groupId, coveredUntil);
+        if (previous.isPresent() && previous.get().getCoveredUntil().getTime() == coveredUntil.getTime()) {
+            return;
+        }
+
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setId(generateId());
+        snapshot.setGroupId(groupId);
+        snapshot.setCoveredUntil(coveredUntil);
+        getNetBalancesAsOf(groupId, coveredUntil)
+                .forEach((email, balance) -> snapshot.getEntries().add(new BalanceSnapshotEntry(email, balance)));
+        balanceSnapshotRepository.save(snapshot);
+        log.info("Took balance snapshot for group id: {} covering expenses until {}", groupId, coveredUntil);
+    }
+
+    private static Map<String, Long> fold(Optional<BalanceSnapshot> snapshot, List<Balance> paidAmounts,
+                                          List<Balance> owedAmounts) {
+        Map<String, Long> balances = new TreeMap<>();
+        snapshot.ifPresent(s -> s.getEntries()
+                .forEach(entry -> balances.merge(entry.getMemberEmail(), entry.getNetBalance(), Long::sum)));
+        for (Balance paid : paidAmounts) {
+            balances.merge(paid.getEmail(), paid.getAmount(), Long::sum);
+        }
+        for (Balance owed : owedAmounts) {
+            balances.merge(owed.getEmail(), -owed.getAmount(), Long::sum);
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.GroupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Links groups created before the debt graph existed. Runs on the scheduler rather than at startup, so a large backlog
+ * never delays the application becoming ready, and pages through the pending groups batch-size ids at a time. Each
+ * group is linked in its own transaction and marked once done, so an interrupted run resumes with the next one and
+ * groups that failed are retried. New groups are linked when they are created, so once a run finds nothing left to
+ * link the job stops querying.
+ */
+@Slf4j
+@Component
+public class DebtGraphBackfill {
+
+    private final GroupRepository groupRepository;
+    private final DebtGraphService debtGraphService;
+    private final int batchSize;
+    private volatile boolean done;
+
+    public DebtGraphBackfill(GroupRepository groupRepository, DebtGraphService debtGraphService,
+                             @Value("${debt-graph.backfill.batch-size:200}") int batchSize) {
+        this.groupRepository = groupRepository;
+        this.debtGraphService = debtGraphService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${debt-graph.backfill.interval-ms:60000}",
+            initialDelayString = "${debt-graph.backfill.initial-delay-ms:30000}")
+    public void linkPendingGroups() {
+        if (done) {
+            return;
+        }
+        int linked = 0;
+        int failed = 0;
+        String lastGroupId = "";
+        List<String> groupIds;
+        do {
+            groupIds = groupRepository.findIdsWithoutComponentsAfter(lastGroupId, Limit.of(batchSize));
+            for (String groupId : groupIds) {
+                try {
+                    debtGraphService.linkGroup(groupId);
+                    linked++;
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Failed to link group id: {} into the debt graph", groupId, e);
+                }
+            }
+            if (!groupIds.isEmpty()) {
+                lastGroupId = groupIds.get(groupIds.size() - 1);
+                log.info("Linked {} groups into the debt graph so far, {} failed", linked, failed);
+            }
+        } while (groupIds.size() == batchSize);
+        done = linked == 0 && failed == 0;
+    }
+}
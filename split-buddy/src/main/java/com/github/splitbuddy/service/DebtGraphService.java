@@ -0,0 +1,167 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.DebtComponentMemberRepository;
+import com.github.splitbuddy.dao.GroupBalanceRepository;
+import com.github.splitbuddy.dao.GroupMemberRepository;
+import com.github.splitbuddy.dao.GroupRepository;
+import com.github.splitbuddy.dtos.Balance;
+import com.github.splitbuddy.entity.DebtComponentMember;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupMember;
+import com.github.splitbuddy.exception.InvalidDataException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the cross-group debt graph. Members sharing a group are linked into one connected component, and a
+ * member's global balance is the sum of their group balances. Summing over a whole component cancels every debt
+ * cycle that runs through several groups, and the remaining balances can be settled as a single plan.
+ * <p>
+ * Components are updated incrementally: linking a group only merges the components its members are already in, and
+ * the smaller components are relabelled into the largest one. Merges lock only the components they touch, so links in
+ * unrelated parts of the graph run concurrently. Components never split, because a member who leaves a group keeps
+ * their balance in it.
+ * <p>
+ * A plan settled over a component may ask a member to pay someone they share no group with, as long as both are
+ * connected through other groups: that is what lets a debt cycle spanning several groups cancel out.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DebtGraphService {
+
+    private static final int COMPONENT_LOCK_NAMESPACE = 0x64656274;
+
+    private final DebtComponentMemberRepository debtComponentMemberRepository;
+    private final GroupRepository groupRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final BalanceLedgerService balanceLedgerService;
+
+    @Value("${debt-graph.max-component-members:5000}")
+    private long maxComponentMembers;
+
+    /**
+     * Puts all the given members into one component. Must run in the transaction that changes the membership.
+     */
+    @Transactional
+    public void link(Collection<String> memberEmails) {
+        Set<String> emails = new TreeSet<>(memberEmails);
+        if (emails.isEmpty() || isLinked(emails)) {
+            return;
+        }
+
+        // every component taking part is locked, so a concurrent relabel can never leave part of one behind
+        Map<String, String> componentIds = lockComponentsOf(emails);
+        Set<String> mergedComponentIds = new TreeSet<>(componentIds.values());
+        String targetComponentId = mergedComponentIds.stream()
+                .max(Comparator.comparingLong(debtComponentMemberRepository::countByComponentId))
+                .orElse(emails.iterator().next());
+        mergedComponentIds.remove(targetComponentId);
+        if (!mergedComponentIds.isEmpty()) {
+            log.info("Merging {} debt components into component: {}", mergedComponentIds.size(), targetComponentId);
+            debtComponentMemberRepository.relabel(mergedComponentIds, targetComponentId);
+        }
+        debtComponentMemberRepository.saveAll(emails.stream()
+                .filter(email -> !componentIds.containsKey(email))
+                .map(email -> new DebtComponentMember(email, targetComponentId))
+                .toList());
+    }
+
+    /**
+     * Links the members of a group created before the debt graph existed. Runs at most once per group.
+     */
+    @Transactional
+    public void linkGroup(String groupId) {
+        Group group = groupRepository.findByIdForUpdate(groupId)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
+        if (Boolean.TRUE.equals(group.getComponentsLinked())) {
+            return;
+        }
+        link(groupMemberRepository.findAllMemberEmails(groupId));
+        group.setComponentsLinked(true);
+        groupRepository.save(group);
+    }
+
+    /**
+     * @return global net balance of every member in the given member's component, or an empty map when the member
+     * has never been part of a group
+     */
+    @Transactional
+    public Map<String, Long> getComponentBalances(String memberEmail) {
+        String componentId = debtComponentMemberRepository.findById(memberEmail)
+                .map(DebtComponentMember::getComponentId)
+                .orElse(null);
+        if (componentId == null) {
+            return Map.of();
+        }
+        if (debtComponentMemberRepository.countByComponentId(componentId) > maxComponentMembers) {
+            throw new InvalidDataException("Too many members are connected across groups to settle them at once, " +
+                    "settle each group instead");
+        }
+        balanceLedgerService.initialize(groupRepository.findAllUninitializedByComponentId(componentId));
+
+        Map<String, Long> balances = new HashMap<>();
+        for (Balance balance : groupBalanceRepository.sumBalancesByComponentId(componentId)) {
+            balances.put(balance.getEmail(), balance.getAmount());
+        }
+        return balances;
+    }
+
+    public static List<String> memberEmailsOf(Collection<GroupMember> members) {
+        return members.stream().map(member -> member.getGroupMemberId().getMemberEmail()).toList();
+    }
+
+    /**
+     * Locks the components of the given members, and the emails of members without one since an email is the id of
+     * the component a new member starts. A component merged away while its lock was awaited shows up as a new id on
+     * the re-read, so reading and locking repeat until every current component is held.
+     * <p>
+     * Keys are taken in ascending order; only keys added by a re-read can come out of order, and Postgres detects the
+     * rare deadlock that causes and fails one of the transactions.
+     *
+     * @return the component id of every member that has one, read while holding the locks
+     */
+    private Map<String, String> lockComponentsOf(Set<String> emails) {
+        Set<Integer> lockedKeys = new HashSet<>();
+        while (true) {
+            Map<String, String> componentIds = componentIdsOf(emails);
+            Set<Integer> lockKeys = new TreeSet<>();
+            for (String email : emails) {
+                lockKeys.add(componentIds.getOrDefault(email, email).hashCode());
+            }
+            lockKeys.removeAll(lockedKeys);
+            if (lockKeys.isEmpty()) {
+                return componentIds;
+            }
+            for (int lockKey : lockKeys) {
+                debtComponentMemberRepository.acquireComponentLock(COMPONENT_LOCK_NAMESPACE, lockKey);
+                lockedKeys.add(lockKey);
+            }
+        }
+    }
+
+    // components only ever merge, so members already sharing a component stay linked without taking any lock
+    private boolean isLinked(Set<String> emails) {
+        Map<String, String> componentIds = componentIdsOf(emails);
+        return componentIds.size() == emails.size() && Set.copyOf(componentIds.values()).size() == 1;
+    }
+
+    private Map<String, String> componentIdsOf(Set<String> emails) {
+        return debtComponentMemberRepository.findAllByMemberEmailIn(emails).stream()
+                .collect(Collectors.toMap(DebtComponentMember::getMemberEmail, DebtComponentMember::getComponentId));
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.GroupChangeRepository;
+import com.github.splitbuddy.dao.GroupRepository;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupChange;
+import com.github.splitbuddy.enums.GroupChangeType;
+import com.github.splitbuddy.exception.InvalidDataException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+import static com.github.splitbuddy.utils.SplitUtil.generateId;
+
+@Service
+@RequiredArgsConstructor
+public class GroupChangeService {
+
+    private final GroupRepository groupRepository;
+    private final GroupChangeRepository groupChangeRepository;
+
+    /**
+     * Bumps the group version and logs the changes under the new version. The version update takes the group row
+     * lock, so call this before writing the changed rows to keep concurrent writers of a group in sequence order.
+     *
+     * @return the new group version
+     */
+    @Transactional
+    public long recordChanges(String groupId, GroupChangeType changeType, Collection<String> entityIds) {
+        long sequence = incrementVersion(groupId);
+        groupChangeRepository.saveAll(entityIds.stream()
+                .map(entityId -> GroupChange.builder()
+                        .id(generateId())
+                        .groupId(groupId)
+                        .sequence(sequence)
+                        .changeType(changeType)
+                        .entityId(entityId)
+                        .build())
+                .toList());
+        return sequence;
+    }
+
+    /**
+     * Bumps the group version without logging a change, for writes that change derived data such as balances but no
+     * expense or member. Caches keyed by the version refresh, and a sync over the new version returns no changes.
+     *
+     * @return the new group version
+     */
+    @Transactional
+    public long incrementVersion(String groupId) {
+        // updated on the managed entity so only this group is evicted from the second-level cache, on every node
+        Group group = groupRepository.findByIdForUpdate(groupId)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
+        long version = (group.getVersion() == null ? 0L : group.getVersion()) + 1;
+        group.setVersion(version);
+        return version;
+    }
+}
@@ -0,0 +1,275 @@
+package com.github.splitbuddy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dao.GroupMemberRepository;
+import com.github.splitbuddy.dtos.GroupMemberView;
+import com.github.splitbuddy.dtos.MembershipInvalidationMessage;
+import com.github.splitbuddy.entity.GroupMember;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of group memberships, answering access checks without a database round trip. Each group maps
+ * member emails to a few flag bits in an immutable map, and a change replaces that map.
+ * <p>
+ * A group is loaded on first access. Membership writes update the index once their transaction commits and tell the
+ * other nodes to drop the group. While a group is being loaded, updates to that group bump a generation kept for the
+ * load, and a load that overlaps an update is not kept, because it may have read the rows before that update
+ * committed. Loads of other groups are unaffected.
+ * <p>
+ * Groups are reloaded once their entry expires, which bounds how long a node keeps a membership it missed the
+ * invalidation for, and the least recently used groups are dropped beyond the size bound.
+ */
+@Slf4j
+@Service
+public class GroupMembershipIndex implements MessageListener {
+
+    private static final byte ACTIVE = 1;
+    private static final byte ADMIN = 2;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CachedMembers> membersByGroupId;
+    // only groups with a load running have an entry, guarded by the lock
+    private final Map<String, InFlightLoad> loadsByGroupId = new HashMap<>();
+    private final long ttlNanos;
+
+    private final GroupMemberRepository groupMemberRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    private final Counter hits;
+    private final Counter loads;
+
+    public GroupMembershipIndex(GroupMemberRepository groupMemberRepository, RedisTemplate<String, Object> redisTemplate,
+                                RedisMessageListenerContainer listenerContainer, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${membership.index.channel:split-buddy:membership-invalidation}") String channel,
+                                @Value("${membership.index.max-groups:10000}") int maxGroups,
+                                @Value("${membership.index.ttl-ms:300000}") long ttlMillis) {
+        this.groupMemberRepository = groupMemberRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.membersByGroupId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMembers> eldest) {
+                return size() > maxGroups;
+            }
+        };
+        this.hits = meterRegistry.counter("group.membership.index", "result", "hit");
+        this.loads = meterRegistry.counter("group.membership.index", "result", "load");
+        meterRegistry.gauge("group.membership.index.groups", this, GroupMembershipIndex::size);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    public boolean isActiveMember(String groupId, String email) {
+        return hasFlags(groupId, email, ACTIVE);
+    }
+
+    public boolean isActiveAdmin(String groupId, String email) {
+        return hasFlags(groupId, email, (byte) (ACTIVE | ADMIN));
+    }
+
+    public Set<String> getActiveMemberEmails(String groupId) {
+        return membersOf(groupId).entrySet().stream()
+                .filter(member -> (member.getValue() & ACTIVE) != 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Write-through hooks, applied once the calling transaction commits.
+     */
+    public void groupCreated(String groupId, Collection<GroupMember> members) {
+        Map<String, Byte> flagsByEmail = new HashMap<>();
+        for (GroupMember member : members) {
+            flagsByEmail.put(member.getGroupMemberId().getMemberEmail(), flagsOf(member.isActive(), member.isAdmin()));
+        }
+        Map<String, Byte> snapshot = Map.copyOf(flagsByEmail);
+        afterCommit(groupId, () -> membersByGroupId.put(groupId, new CachedMembers(snapshot, System.nanoTime())));
+    }
+
+    public void memberAdded(String groupId, String email, boolean isAdmin) {
+        afterCommit(groupId, () -> withMember(groupId, email, flagsOf(true, isAdmin)));
+    }
+
+    public void memberRemoved(String groupId, String email, boolean isAdmin) {
+        afterCommit(groupId, () -> withMember(groupId, email, flagsOf(false, isAdmin)));
+    }
+
+    private boolean hasFlags(String groupId, String email, byte flags) {
+        Byte memberFlags = membersOf(groupId).get(email);
+        return memberFlags != null && (memberFlags & flags) == flags;
+    }
+
+    private Map<String, Byte> membersOf(String groupId) {
+        long now = System.nanoTime();
+        InFlightLoad inFlight;
+        long loadGeneration;
+        lock.lock();
+        try {
+            CachedMembers cached = membersByGroupId.get(groupId);
+            if (cached != null && now - cached.loadedAt() < ttlNanos) {
+                hits.increment();
+                return cached.members();
+            }
+            inFlight = loadsByGroupId.computeIfAbsent(groupId, id -> new InFlightLoad());
+            inFlight.loaders++;
+            loadGeneration = inFlight.generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Map<String, Byte> members = Map.of();
+        try {
+            loads.increment();
+            members = load(groupId);
+            return members;
+        } finally {
+            lock.lock();
+            try {
+                // unknown group ids are not kept, so probing random ids cannot grow the index
+                if (!members.isEmpty() && inFlight.generation == loadGeneration) {
+                    membersByGroupId.put(groupId, new CachedMembers(members, now));
+                }
+                if (--inFlight.loaders == 0) {
+                    loadsByGroupId.remove(groupId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Map<String, Byte> load(String groupId) {
+        Map<String, Byte> flagsByEmail = new HashMap<>();
+        for (GroupMemberView member : groupMemberRepository.findAllViewsByGroupIdIn(List.of(groupId))) {
+            flagsByEmail.put(member.email(), flagsOf(member.isActive(), member.isAdmin()));
+        }
+        return Map.copyOf(flagsByEmail);
+    }
+
+    private void withMember(String groupId, String email, byte flags) {
+        // groups not loaded yet are left to be read from the database on first access, and the entry keeps its load
+        // time so a group that missed an invalidation is still reloaded once it expires
+        CachedMembers cached = membersByGroupId.get(groupId);
+        if (cached != null) {
+            Map<String, Byte> updated = new HashMap<>(cached.members());
+            updated.put(email, flags);
+            membersByGroupId.put(groupId, new CachedMembers(Map.copyOf(updated), cached.loadedAt()));
+        }
+    }
+
+    // called with the lock held
+    private void invalidateLoads(String groupId) {
+        InFlightLoad inFlight = loadsByGroupId.get(groupId);
+        if (inFlight != null) {
+            inFlight.generation++;
+        }
+    }
+
+    private void afterCommit(String groupId, Runnable update) {
+        Runnable apply = () -> {
+            lock.lock();
+            try {
+                invalidateLoads(groupId);
+                update.run();
+            } finally {
+                lock.unlock();
+            }
+            publish(groupId);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void publish(String groupId) {
+        try {
+            redisTemplate.convertAndSend(channel,
+                    objectMapper.writeValueAsString(new MembershipInvalidationMessage(nodeId, groupId)));
+        } catch (Exception e) {
+            log.warn("Failed to publish membership change of group id: {}", groupId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message redisMessage, byte[] pattern) {
+        try {
+            MembershipInvalidationMessage message = objectMapper.readValue(
+                    new String(redisMessage.getBody(), StandardCharsets.UTF_8), MembershipInvalidationMessage.class);
+            if (!nodeId.equals(message.nodeId())) {
+                lock.lock();
+                try {
+                    invalidateLoads(message.groupId());
+                    membersByGroupId.remove(message.groupId());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable membership invalidation message", e);
+        }
+    }
+
+    public double size() {
+        lock.lock();
+        try {
+            return membersByGroupId.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte flagsOf(boolean isActive, boolean isAdmin) {
+        return (byte) ((isActive ? ACTIVE : 0) | (isAdmin ? ADMIN : 0));
+    }
+
+    private record CachedMembers(Map<String, Byte> members, long loadedAt) {
+    }
+
+    // concurrent loads of one group share an entry, which lives until the last of them finishes
+    private static final class InFlightLoad {
+        private int loaders;
+        private long generation;
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.GroupRepository;
+import com.github.splitbuddy.dtos.GroupExpenseSummary;
+import com.github.splitbuddy.dtos.GroupMemberView;
+import com.github.splitbuddy.dtos.GroupView;
+import com.github.splitbuddy.exception.ServiceOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Non-blocking variant of {@link SplitService#fetchAllGroupSummary(String)}, built on the same batch queries. Loading
+ * runs on the bounded dashboard executor. Groups whose balance ledger is ready are served by one batch query; groups
+ * that still need their ledger rebuilt are handled as separate tasks with their own timeout. Groups that time out or
+ * fail are still listed, without a settlement amount, and reported as incomplete.
+ * <p>
+ * A timed out rebuild does not keep its executor slot: the task is cancelled with an interrupt, and its transaction
+ * carries the same timeout, so a JDBC statement still running is cancelled by the database driver.
+ */
+@Slf4j
+@Service
+public class GroupSummaryService {
+
+    private final GroupRepository groupRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final SplitService splitService;
+    private final AsyncTaskExecutor dashboardExecutor;
+    private final TransactionTemplate rebuildTransaction;
+    private final long groupTimeoutMillis;
+
+    public GroupSummaryService(GroupRepository groupRepository, BalanceLedgerService balanceLedgerService,
+                               SplitService splitService, PlatformTransactionManager transactionManager,
+                               @Qualifier("dashboardExecutor") AsyncTaskExecutor dashboardExecutor,
+                               @Value("${dashboard.group-timeout-ms:2000}") long groupTimeoutMillis) {
+        this.groupRepository = groupRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.splitService = splitService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.groupTimeoutMillis = groupTimeoutMillis;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        // transaction timeouts have second precision, round up so the database never gives up before the caller
+        this.rebuildTransaction.setTimeout((int) Math.max(1, MILLISECONDS.toSeconds(groupTimeoutMillis + 999)));
+    }
+
+    public CompletableFuture<GroupExpenseSummary> fetchAllGroupSummary(String loggedInEmail) {
+        log.info("Fetching all group summary asynchronously for user: {}", loggedInEmail);
+        return submit(() -> loadGroups(loggedInEmail))
+                .thenCompose(loadedGroups -> summarize(loadedGroups, loggedInEmail));
+    }
+
+    private LoadedGroups loadGroups(String loggedInEmail) {
+        List<GroupView> groups = groupRepository.findAllActiveViewsByUserId(loggedInEmail);
+        List<GroupView> initializedGroups = new ArrayList<>();
+        for (GroupView group : groups) {
+            if (Boolean.TRUE.equals(group.balancesInitialized())) {
+                initializedGroups.add(group);
+            }
+        }
+        Map<String, Long> settlementAmounts = initializedGroups.isEmpty()
+                ? Map.of() : balanceLedgerService.getNetBalances(initializedGroups, loggedInEmail);
+        return new LoadedGroups(groups, splitService.getMembersByGroupId(groups), settlementAmounts);
+    }
+
+    private CompletableFuture<GroupExpenseSummary> summarize(LoadedGroups loadedGroups, String loggedInEmail) {
+        Map<String, Long> settlementAmounts = new ConcurrentHashMap<>(loadedGroups.settlementAmounts());
+        List<CompletableFuture<Void>> rebuilds = loadedGroups.groups().stream()
+                .filter(group -> !settlementAmounts.containsKey(group.id()))
+                .map(group -> rebuildSettlementAmount(group, loggedInEmail)
+                        .thenAccept(settlementAmount -> settlementAmounts.put(group.id(), settlementAmount))
+                        .exceptionally(exception -> {
+                            log.warn("Settlement for group id: {} did not complete, returning it without amount",
+                                    group.id(), exception);
+                            return null;
+                        }))
+                .toList();
+
+        return CompletableFuture.allOf(rebuilds.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> splitService.buildGroupExpenseSummary(loadedGroups.groups(),
+                        loadedGroups.membersByGroupId(), settlementAmounts));
+    }
+
+    private CompletableFuture<Long> rebuildSettlementAmount(GroupView group, String loggedInEmail) {
+        return submitCancellable(() -> rebuildTransaction.execute(status ->
+                balanceLedgerService.getNetBalance(group, loggedInEmail)));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, dashboardExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(tooManyRequests());
+        }
+    }
+
+    private <T> CompletableFuture<T> submitCancellable(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> execution;
+        try {
+            execution = dashboardExecutor.submit(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(tooManyRequests());
+        }
+        // a task cancelled while still queued is skipped when its turn comes
+        return result.orTimeout(groupTimeoutMillis, MILLISECONDS).whenComplete((value, exception) -> {
+            if (exception instanceof TimeoutException) {
+                execution.cancel(true);
+            }
+        });
+    }
+
+    private static ServiceOverloadedException tooManyRequests() {
+        return new ServiceOverloadedException("Too many dashboard requests, try again later");
+    }
+
+    private record LoadedGroups(List<GroupView> groups, Map<String, List<GroupMemberView>> membersByGroupId,
+                                Map<String, Long> settlementAmounts) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.splitbuddy.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the notification outbox: each run relays full batches until one comes back short, so a backlog is cleared in
+ * one run while an idle outbox costs a single query per interval.
+ */
+@Slf4j
+@Component
+public class NotificationRelayJob {
+
+    private final NotificationService notificationService;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+    private final long claimTimeoutMillis;
+
+    public NotificationRelayJob(NotificationService notificationService,
+                                @Value("${notification.outbox.batch-size:500}") int batchSize,
+                                @Value("${notification.outbox.send-timeout-ms:10000}") long sendTimeoutMillis,
+                                @Value("${notification.outbox.claim-timeout-ms:60000}") long claimTimeoutMillis,
+                                @Value("${kafka.producer.max-block-ms:5000}") long maxBlockMillis) {
+        // a claim running out while its batch is still being sent or deleted would let another node send it again; the
+        // last send started within the send timeout can still block for up to max-block-ms
+        if (claimTimeoutMillis <= sendTimeoutMillis + maxBlockMillis) {
+            throw new IllegalArgumentException("notification.outbox.claim-timeout-ms must be greater than "
+                    + "notification.outbox.send-timeout-ms plus kafka.producer.max-block-ms");
+        }
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            while (notificationService.relayPending(batchSize, sendTimeoutMillis, claimTimeoutMillis) == batchSize) {
+                log.debug("Notification outbox has more entries, relaying the next batch");
+            }
+        } catch (Exception e) {
+            // whatever was not settled stays claimed until the claim runs out, and is sent again after that
+            log.error("Failed to relay notifications", e);
+        }
+    }
+}
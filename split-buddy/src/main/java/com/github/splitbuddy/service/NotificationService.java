@@ -1,18 +1,285 @@
 package com.github.splitbuddy.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dao.NotificationOutboxRepository;
 import com.github.splitbuddy.dtos.NotificationMessage;
+import com.github.splitbuddy.entity.NotificationOutboxEntry;
 import com.github.splitbuddy.enums.NotificationType;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends notifications through a transactional outbox. {@link #notifyUser} only writes an outbox entry in the caller's
+ * transaction, so a rolled back change never notifies anyone and requests never wait for Kafka.
+ * {@link #relayPending} later publishes the entries in batches.
+ * <p>
+ * Each recipient's notifications reach the consumer in the order their transactions committed. Ids and creation
+ * times are taken before the commit, so entries carry a per recipient sequence assigned while committing instead, and
+ * the relay never sends an entry while an older one of the same recipient is still unsent. Delivery is at least once:
+ * an entry that is not acknowledged is sent again after a backoff, together with the entries of its recipient sent
+ * after it, ahead of anything newer for that recipient.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class NotificationService {
+
+    private static final String TOPIC = "notifications";
+    private static final long RELAY_LOCK_KEY = 0x6e6f74696679L;
+    private static final int RECIPIENT_LOCK_NAMESPACE = 0x6e6f7469;
+
     private final KafkaTemplate<String, NotificationMessage> kafkaTemplate;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate outboxTransaction;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
 
+    public NotificationService(KafkaTemplate<String, NotificationMessage> kafkaTemplate,
+                               NotificationOutboxRepository notificationOutboxRepository, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${notification.outbox.max-attempts:10}") int maxAttempts,
+                               @Value("${notification.outbox.retry-backoff-ms:1000}") long retryBackoffMillis,
+                               @Value("${notification.outbox.max-retry-backoff-ms:300000}")
+                               long maxRetryBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("notification.outbox.max-attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+        this.kafkaTemplate = kafkaTemplate;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.outboxTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
     public void notifyUser(NotificationType type, String email, Object... args) {
-        NotificationMessage message = new NotificationMessage(type, email, args);
-        kafkaTemplate.send("notifications", message);
+        NotificationOutboxEntry entry;
+        try {
+            entry = notificationOutboxRepository.save(NotificationOutboxEntry.builder()
+                    .recipient(email)
+                    .type(type)
+                    .args(objectMapper.writeValueAsString(args))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize arguments of notification " + type, e);
+        }
+        pendingEntriesByRecipient().computeIfAbsent(email, recipient -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * Publishes up to {@code batchSize} outbox entries, the oldest ones of each recipient. The batch is claimed for
+     * {@code claimTimeoutMillis} in a short transaction and sent outside of it, so no database connection or lock is
+     * held while waiting for Kafka. Recipients with a claimed entry are skipped until it is deleted or released, so a
+     * later batch never overtakes one still in flight.
+     * <p>
+     * Sending and waiting for acknowledgements share a budget of {@code sendTimeoutMillis}, counted from the first
+     * send. Each entry is then settled on its own: acknowledged entries are deleted, and from a recipient's first entry
+     * that was not acknowledged on, all of its entries stay in the outbox to be sent again in order. The failed entry
+     * waits out a backoff that doubles with every failed attempt, and is dropped after {@code maxAttempts}.
+     *
+     * @return the number of entries acknowledged, {@code 0} when another node is claiming a batch
+     */
+    public int relayPending(int batchSize, long sendTimeoutMillis, long claimTimeoutMillis) {
+        List<NotificationOutboxEntry> entries = outboxTransaction.execute(status -> claimBatch(batchSize,
+                claimTimeoutMillis));
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.currentTimeMillis() + sendTimeoutMillis;
+        // entries come oldest first per recipient, and messages of one key keep their send order in Kafka
+        List<CompletableFuture<?>> sends = new ArrayList<>(entries.size());
+        for (NotificationOutboxEntry entry : entries) {
+            if (System.currentTimeMillis() >= deadline) {
+                // the rest stays unsent and is released; a late send would eat into the claim
+                break;
+            }
+            sends.add(send(entry));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // settled per entry below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return settle(entries, sends);
+    }
+
+    private CompletableFuture<?> send(NotificationOutboxEntry entry) {
+        NotificationMessage message = toMessage(entry);
+        if (message == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return kafkaTemplate.send(TOPIC, entry.getRecipient(), message);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Deletes the acknowledged entries and releases the rest. An entry counts as failed when its send failed or was
+     * not acknowledged in time; entries never sent, and those behind a failure of the same recipient, are released
+     * without counting an attempt.
+     *
+     * @return the number of entries deleted as acknowledged
+     */
+    private int settle(List<NotificationOutboxEntry> entries, List<CompletableFuture<?>> sends) {
+        List<Long> acknowledged = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+        Map<Integer, List<Long>> failedByAttempt = new TreeMap<>();
+        List<NotificationOutboxEntry> droppedAfterFailures = new ArrayList<>();
+        Set<String> blockedRecipients = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            NotificationOutboxEntry entry = entries.get(i);
+            CompletableFuture<?> send = i < sends.size() ? sends.get(i) : null;
+            boolean sent = send != null && send.isDone() && !send.isCompletedExceptionally();
+            if (send == null || blockedRecipients.contains(entry.getRecipient())) {
+                blockedRecipients.add(entry.getRecipient());
+                released.add(entry.getId());
+            } else if (sent) {
+                acknowledged.add(entry.getId());
+            } else {
+                blockedRecipients.add(entry.getRecipient());
+                int attempt = (entry.getFailedAttempts() == null ? 0 : entry.getFailedAttempts()) + 1;
+                if (attempt >= maxAttempts) {
+                    droppedAfterFailures.add(entry);
+                } else {
+                    failedByAttempt.computeIfAbsent(attempt, key -> new ArrayList<>()).add(entry.getId());
+                }
+            }
+        }
+
+        droppedAfterFailures.forEach(entry -> log.error("Dropping notification outbox entry id: {} of type: {} for {} "
+                + "after {} failed attempts", entry.getId(), entry.getType(), entry.getRecipient(), maxAttempts));
+        List<Long> deleted = new ArrayList<>(acknowledged);
+        deleted.addAll(idsOf(droppedAfterFailures));
+        try {
+            outboxTransaction.executeWithoutResult(status -> {
+                if (!deleted.isEmpty()) {
+                    notificationOutboxRepository.deleteAllByIdInBatch(deleted);
+                }
+                if (!released.isEmpty()) {
+                    notificationOutboxRepository.release(released);
+                }
+                long now = System.currentTimeMillis();
+                failedByAttempt.forEach((attempt, ids) ->
+                        notificationOutboxRepository.releaseFailed(ids, new Date(now + backoffMillis(attempt))));
+            });
+        } catch (Exception e) {
+            // the claims still run out, and every entry of the batch is sent again
+            log.warn("Failed to settle {} relayed notifications", entries.size(), e);
+            return 0;
+        }
+
+        int retried = entries.size() - deleted.size();
+        if (retried > 0) {
+            log.warn("Relayed {} notifications, {} left for a later attempt", acknowledged.size(), retried);
+        } else {
+            log.info("Relayed {} notifications", acknowledged.size());
+        }
+        return acknowledged.size();
+    }
+
+    private long backoffMillis(int attempt) {
+        // capped before shifting, so a large attempt count cannot overflow
+        return Math.min(retryBackoffMillis << Math.min(attempt - 1, 30), maxRetryBackoffMillis);
+    }
+
+    private List<NotificationOutboxEntry> claimBatch(int batchSize, long claimTimeoutMillis) {
+        // serializes claims only, so two nodes never claim entries of the same recipient
+        if (!notificationOutboxRepository.tryAcquireRelayLock(RELAY_LOCK_KEY)) {
+            return List.of();
+        }
+        Date now = new Date();
+        List<NotificationOutboxEntry> entries = notificationOutboxRepository.findClaimable(now, batchSize);
+        if (!entries.isEmpty()) {
+            notificationOutboxRepository.claim(idsOf(entries), new Date(now.getTime() + claimTimeoutMillis));
+        }
+        return entries;
+    }
+
+    /**
+     * The entries written by the current transaction, keyed by recipient. The first call registers the hook that
+     * assigns their recipient sequences as the transaction commits.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, List<NotificationOutboxEntry>> pendingEntriesByRecipient() {
+        Map<String, List<NotificationOutboxEntry>> pending =
+                (Map<String, List<NotificationOutboxEntry>>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        // ordered by lock key, so transactions notifying the same recipients lock them in the same order
+        Map<String, List<NotificationOutboxEntry>> entriesByRecipient = new TreeMap<>(
+                Comparator.comparingInt(String::hashCode).thenComparing(Comparator.naturalOrder()));
+        TransactionSynchronizationManager.bindResource(this, entriesByRecipient);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                assignRecipientSequences(entriesByRecipient);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(NotificationService.this);
+            }
+        });
+        return entriesByRecipient;
+    }
+
+    /**
+     * Numbers the entries of each recipient after every entry committed before. The recipient lock is held until the
+     * commit, so a transaction numbering the same recipient waits and numbers its entries after these. Only entries
+     * still in the outbox need ordering, so the next number is taken from the highest one left there.
+     */
+    private void assignRecipientSequences(Map<String, List<NotificationOutboxEntry>> entriesByRecipient) {
+        entriesByRecipient.forEach((recipient, entries) -> {
+            notificationOutboxRepository.acquireRecipientLock(RECIPIENT_LOCK_NAMESPACE, recipient.hashCode());
+            Long highest = notificationOutboxRepository.findMaxRecipientSequence(recipient);
+            long sequence = highest == null ? 1L : highest + 1;
+            entries.forEach(entry -> entry.setRecipientSequence(sequence));
+        });
+    }
+
+    private static List<Long> idsOf(List<NotificationOutboxEntry> entries) {
+        return entries.stream().map(NotificationOutboxEntry::getId).toList();
+    }
+
+    private NotificationMessage toMessage(NotificationOutboxEntry entry) {
+        try {
+            return new NotificationMessage(entry.getType(), entry.getRecipient(),
+                    objectMapper.readValue(entry.getArgs(), Object[].class));
+        } catch (JsonProcessingException e) {
+            // dropped rather than retried, it would block every entry behind it
+            log.error("Dropping notification outbox entry id: {} with unreadable arguments", entry.getId(), e);
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.github.splitbuddy.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -28,6 +29,11 @@ public class RedisService {
         return objectMapper.readValue(value, clazz);
     }
 
+    public <T> T get(String key, TypeReference<T> typeReference) throws JsonProcessingException {
+        final String value = get(key);
+        return value == null ? null : objectMapper.readValue(value, typeReference);
+    }
+
     public void delete(String key) {
         redisTemplate.delete(key);
     }
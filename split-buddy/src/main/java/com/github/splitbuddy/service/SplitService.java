@@ -3,18 +3,28 @@ package com.github.splitbuddy.service;
 import com.github.splitbuddy.converter.GroupMemberConverter;
 import com.github.splitbuddy.dao.ExpenseRepository;
 import com.github.splitbuddy.dao.ExpenseSplitRepository;
+import com.github.splitbuddy.dao.GroupChangeRepository;
 import com.github.splitbuddy.dao.GroupMemberRepository;
 import com.github.splitbuddy.dao.GroupRepository;
 import com.github.splitbuddy.dtos.*;
 import com.github.splitbuddy.entity.*;
+import com.github.splitbuddy.enums.GroupChangeType;
 import com.github.splitbuddy.enums.NotificationType;
 import com.github.splitbuddy.enums.Role;
+import com.github.splitbuddy.enums.SolverMode;
 import com.github.splitbuddy.exception.InvalidDataException;
+import com.github.splitbuddy.settlement.SettlementEngine;
+import com.github.splitbuddy.settlement.SettlementPolicy;
+import com.github.splitbuddy.settlement.SettlementPlanCache;
 import com.github.splitbuddy.validation.ExpenseValidationStrategyFactory;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,8 +36,11 @@ import static com.github.splitbuddy.converter.GroupConverter.convertToGroupCreat
 import static com.github.splitbuddy.converter.GroupMemberConverter.convertToGroupMemberDTO;
 import static com.github.splitbuddy.converter.GroupMemberConverter.createGroupMember;
 import static com.github.splitbuddy.enums.NotificationType.EXPENSE_ADDED;
+import static com.github.splitbuddy.enums.NotificationType.EXPENSES_ADDED;
 import static com.github.splitbuddy.enums.NotificationType.MEMBER_ADDED;
-import static com.github.splitbuddy.utils.SplitUtil.generateUUID;
+import static com.github.splitbuddy.utils.MoneyUtil.toMajorUnits;
+import static com.github.splitbuddy.utils.HashUtil.sha256Hex;
+import static com.github.splitbuddy.utils.SplitUtil.generateId;
 import static java.lang.String.format;
 
 @Slf4j
@@ -35,18 +48,45 @@ import static java.lang.String.format;
 @Service
 public class SplitService {
 
+    public static final int DEFAULT_EXPENSE_PAGE_SIZE = 20;
+    public static final int MAX_EXPENSE_PAGE_SIZE = 100;
+
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final ExpenseRepository expenseRepository;
     private final NotificationService notificationService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final SettlementPlanCache settlementPlanCache;
+    private final DebtGraphService debtGraphService;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final GroupChangeService groupChangeService;
+    private final GroupChangeRepository groupChangeRepository;
+    private final GroupMembershipIndex groupMembershipIndex;
+
+    @Value("${settlement.solver.mode:OPTIMAL}")
+    private SolverMode solverMode;
+    @Value("${settlement.solver.optimal-max-members:16}")
+    private int optimalMaxMembers;
+    @Value("${settlement.solver.time-budget-ms:50}")
+    private long solverTimeBudgetMillis;
+    private SettlementPolicy settlementPolicy;
+
+    // built once so a member limit above the solver's cap fails startup rather than the first settlement
+    @PostConstruct
+    void initSettlementPolicy() {
+        settlementPolicy = new SettlementPolicy(solverMode, optimalMaxMembers, Duration.ofMillis(solverTimeBudgetMillis));
+    }
 
+    @Transactional
     public GroupCreationResponse createGroup(User user, GroupCreationRequest groupCreationRequest) {
         if (!groupCreationRequest.getMembers().contains(user.getUsername())) {
             groupCreationRequest.getMembers().add(user.getUsername());
         }
         Group group = convertToGroup(groupCreationRequest, user);
         groupRepository.save(group);
+        debtGraphService.link(groupCreationRequest.getMembers());
+        groupMembershipIndex.groupCreated(group.getId(), group.getMembers());
         log.info("Group created successfully for group name: {}", groupCreationRequest.getGroupName());
         List<GroupMemberDTO> activeMembers = getGroupMembersAndSendNotification(group);
         return convertToGroupCreationResponse(group, activeMembers);
@@ -68,11 +108,14 @@ public class SplitService {
 
     private Group convertToGroup(GroupCreationRequest groupCreationRequest, User user) {
         Group group = new Group();
-        group.setId(generateUUID());
+        group.setId(generateId());
         group.setName(groupCreationRequest.getGroupName());
         group.setDescription(groupCreationRequest.getDescription());
         group.setCreatedBy(user);
         group.setDeleted(false);
+        group.setBalancesInitialized(true);
+        group.setComponentsLinked(true);
+        group.setVersion(0L);
         group.setCreatedAt(new Date());
         group.setUpdatedAt(new Date());
         groupRepository.save(group);
@@ -98,7 +141,7 @@ public class SplitService {
 
        checkIfLoggedInUserIsAdmin(groupUpdateRequest.getGroupId(), loggedInEmail);
 
-        groupRepository.findByIdAndIsDeleted(groupUpdateRequest.getGroupId(), false)
+        findActiveGroup(groupUpdateRequest.getGroupId())
                 .map(group -> {
                     group.setName(groupUpdateRequest.getGroupName());
                     group.setDescription(groupUpdateRequest.getDescription());
@@ -112,35 +155,62 @@ public class SplitService {
 
         Group group = checkForActiveGroup(groupId);
 
-        groupMemberRepository.findByGroupIdMemberEmailAndIsActive(groupId, loggedInEmail, true)
-                .filter(GroupMember::isAdmin)
-                .orElseThrow(() -> new InvalidDataException(format("%s is not an admin", loggedInEmail)));
+        if (!groupMembershipIndex.isActiveAdmin(groupId, loggedInEmail)) {
+            throw new InvalidDataException(format("%s is not an admin", loggedInEmail));
+        }
 
         group.setDeleted(true);
         group.setUpdatedAt(new Date());
         groupRepository.save(group);
     }
 
+    /**
+     * Builds the summary of every active group of a member from three batch queries: the groups, their members and
+     * the member's ledger row in each group. A member settles exactly their net balance, so no settlement plan is
+     * computed. {@link GroupSummaryService} serves the same summary without blocking the request thread.
+     */
     public GroupExpenseSummary fetchAllGroupSummary(String loggedInEmail) {
         log.info("Fetching all group summary for user: {}", loggedInEmail);
-        List<Group> groups = groupRepository.findAllByUserId(loggedInEmail).stream()
-                .filter(group -> !group.isDeleted())
-                .toList();
+        List<GroupView> groups = groupRepository.findAllActiveViewsByUserId(loggedInEmail);
+        return buildGroupExpenseSummary(groups, getMembersByGroupId(groups),
+                balanceLedgerService.getNetBalances(groups, loggedInEmail));
+    }
+
+    /**
+     * Groups missing from {@code settlementAmounts} are listed without an amount and reported as incomplete.
+     */
+    GroupExpenseSummary buildGroupExpenseSummary(List<GroupView> groups,
+                                                 Map<String, List<GroupMemberView>> membersByGroupId,
+                                                 Map<String, Long> settlementAmounts) {
         List<GroupExpenseDTO> groupExpenseDTOs = groups.stream()
-                .map(group -> convertToGroupExpenseDTO(group, loggedInEmail)).toList();
-        double totalSettlementAmount = groupExpenseDTOs.stream()
-                .mapToDouble(GroupExpenseDTO::getSettlementAmount).sum();
-        return new GroupExpenseSummary(totalSettlementAmount, groupExpenseDTOs);
+                .map(group -> convertToGroupExpenseDTO(group, membersByGroupId.get(group.id()),
+                        settlementAmounts.get(group.id())))
+                .toList();
+        long totalSettlementAmount = groupExpenseDTOs.stream()
+                .map(GroupExpenseDTO::getSettlementAmount)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue).sum();
+        List<String> incompleteGroupIds = groupExpenseDTOs.stream()
+                .filter(groupExpenseDTO -> groupExpenseDTO.getSettlementAmount() == null)
+                .map(GroupExpenseDTO::getId).toList();
+        return new GroupExpenseSummary(totalSettlementAmount, groupExpenseDTOs, incompleteGroupIds);
+    }
+
+    Map<String, List<GroupMemberView>> getMembersByGroupId(Collection<GroupView> groups) {
+        if (groups.isEmpty()) {
+            return Map.of();
+        }
+        return groupMemberRepository.findAllViewsByGroupIdIn(groups.stream().map(GroupView::id).toList()).stream()
+                .collect(Collectors.groupingBy(GroupMemberView::groupId));
     }
 
-    public GroupExpenseDTO convertToGroupExpenseDTO(Group group, String loggedInEmail) {
+    public GroupExpenseDTO convertToGroupExpenseDTO(GroupView group, List<GroupMemberView> members,
+                                                    Long settlementAmount) {
 
         try {
-            List<Expense> expenses = expenseRepository.findAllExpensesWithSplits(group.getId());
-
             GroupExpenseDTO groupExpenseDTO = convertToExpenseDTO(group);
-            groupExpenseDTO.setSettlementAmount(calculateSettlementAmount(expenses, loggedInEmail));
-            groupExpenseDTO.setMembers(getGroupMemberDTO(group.getMembers()));
+            groupExpenseDTO.setSettlementAmount(settlementAmount);
+            groupExpenseDTO.setMembers(getGroupMemberDTO(members));
             return groupExpenseDTO;
         }  catch (Exception e) {
             log.error("Error while fetching group expense summary", e);
@@ -148,12 +218,16 @@ public class SplitService {
         }
     }
 
-    private List<GroupMemberDTO> getGroupMemberDTO(Set<GroupMember> members) {
+    private static List<GroupMemberDTO> getGroupMemberDTO(List<GroupMemberView> members) {
+        if (members == null) {
+            return List.of();
+        }
         return members.stream()
-                .filter(GroupMember::isActive)
+                .filter(GroupMemberView::isActive)
                 .map(GroupMemberConverter::convertToGroupMemberDTO).toList();
     }
 
+    @Transactional
     public void addExpenseToGroup(User user, String groupId, ExpenseCreationRequest request) {
         log.info("Adding expense to group id: {}", groupId);
         Group group = checkForActiveGroup(groupId);
@@ -162,34 +236,87 @@ public class SplitService {
 
         ExpenseValidationStrategyFactory.getStrategy(request.getSplitType())
                 .validate(request);
-
         Expense expense = convertToExpense(group, request, user);
+        // recorded before any write so the group row lock orders this expense against ledger reconciliation
+        groupChangeService.recordChanges(groupId, GroupChangeType.EXPENSE_ADDED, List.of(expense.getId()));
+        balanceLedgerService.initialize(group);
         expenseRepository.save(expense);
+        List<ExpenseSplit> splits = new ArrayList<>(request.getShares().size());
         request.getShares().forEach(share -> {
             ExpenseSplit split = convertToExpenseSplit(share, expense);
             expenseSplitRepository.save(split);
+            splits.add(split);
             if (share.amountOwed() > 0) {
                 notificationService.notifyUser(EXPENSE_ADDED, share.owedBy(), share.owedBy().split("@")[0],
-                        share.amountOwed(), group.getName());
+                        toMajorUnits(share.amountOwed()), group.getName());
             }
         });
+        balanceLedgerService.recordExpense(group, expense, splits);
+    }
+
+    /**
+     * Adds many expenses in one transaction. Every expense is validated before anything is written, rows go out in
+     * JDBC batches, the ledger is updated once per member and each affected member gets a single notification.
+     */
+    @Transactional
+    public void addExpensesToGroup(User user, String groupId, BulkExpenseCreationRequest request) {
+        log.info("Adding {} expenses to group id: {}", request.getExpenses().size(), groupId);
+        Group group = checkForActiveGroup(groupId);
+        Set<String> groupMemberEmails = getActiveMemberEmails(user, group);
+
+        List<Expense> expenses = new ArrayList<>(request.getExpenses().size());
+        for (int index = 0; index < request.getExpenses().size(); index++) {
+            ExpenseCreationRequest expenseRequest = request.getExpenses().get(index);
+            try {
+                validateExpenseCreationRequest(groupMemberEmails, expenseRequest);
+                ExpenseValidationStrategyFactory.getStrategy(expenseRequest.getSplitType())
+                        .validate(expenseRequest);
+            } catch (InvalidDataException e) {
+                throw new InvalidDataException(format("Expense %d: %s", index, e.getMessage()));
+            }
+            Expense expense = convertToExpense(group, expenseRequest, user);
+            List<ExpenseSplit> splits = new ArrayList<>(expenseRequest.getShares().size());
+            expenseRequest.getShares().forEach(share -> splits.add(convertToExpenseSplit(share, expense)));
+            expense.setSplits(splits);
+            expenses.add(expense);
+        }
+        groupChangeService.recordChanges(groupId, GroupChangeType.EXPENSE_ADDED,
+                expenses.stream().map(Expense::getId).toList());
+        balanceLedgerService.initialize(group);
+
+        // splits are cascaded from their expense, ordered inserts let Hibernate batch each table separately
+        expenseRepository.saveAll(expenses);
+        balanceLedgerService.recordExpenses(group, expenses);
+
+        Map<String, Long> owedByMember = new TreeMap<>();
+        Map<String, Integer> expenseCountByMember = new HashMap<>();
+        for (Expense expense : expenses) {
+            for (ExpenseSplit split : expense.getSplits()) {
+                if (split.getAmountOwed() > 0) {
+                    owedByMember.merge(split.getOwedBy(), split.getAmountOwed(), Long::sum);
+                    expenseCountByMember.merge(split.getOwedBy(), 1, Integer::sum);
+                }
+            }
+        }
+        owedByMember.forEach((email, owed) -> notificationService.notifyUser(EXPENSES_ADDED, email,
+                email.split("@")[0], expenseCountByMember.get(email), toMajorUnits(owed), group.getName()));
     }
 
     private void validateExpenseCreationRequest(User user, Group group, ExpenseCreationRequest request) {
+        validateExpenseCreationRequest(getActiveMemberEmails(user, group), request);
+    }
+
+    private Set<String> getActiveMemberEmails(User user, Group group) {
         log.info("Validating expense creation request for user: {}", user.getUsername());
-        boolean isMember = group.getMembers().stream()
-                .anyMatch(member ->
-                        member.getGroupMemberId().getMemberEmail().equals(user.getUsername()) && member.isActive());
+        Set<String> groupMemberEmails = groupMembershipIndex.getActiveMemberEmails(group.getId());
 
-        if (!isMember) {
+        if (!groupMemberEmails.contains(user.getUsername())) {
             throw new InvalidDataException("User is not a member of the group");
         }
+        return groupMemberEmails;
+    }
 
-        Set<String> groupMemberEmails = group.getMembers().stream()
-                .filter(GroupMember::isActive)
-                .map(member -> member.getGroupMemberId().getMemberEmail())
-                .collect(Collectors.toSet());
-
+    private static void validateExpenseCreationRequest(Set<String> groupMemberEmails, ExpenseCreationRequest request) {
         for (IndividualShare share : request.getShares()) {
             if (!groupMemberEmails.contains(share.owedBy())) {
                 throw new InvalidDataException("User " + share.owedBy() + " is not a member of this group");
@@ -201,6 +328,7 @@ public class SplitService {
         }
     }
 
+    @Transactional
     public void deleteGroupMember(String loggerInEmail, String groupId, String memberEmail) {
         log.info("Deleting group member: {} from group: {}", memberEmail, groupId);
         checkForActiveGroup(groupId);
@@ -210,33 +338,42 @@ public class SplitService {
         GroupMember groupMember = groupMemberRepository.findByGroupIdMemberEmailAndIsActive(groupId, memberEmail, true)
                 .orElseThrow(() -> new InvalidDataException(format("%s is not an active member", memberEmail)));
 
+        groupChangeService.recordChanges(groupId, GroupChangeType.MEMBER_REMOVED, List.of(memberEmail));
         groupMember.setActive(false);
         groupMemberRepository.save(groupMember);
+        groupMembershipIndex.memberRemoved(groupId, memberEmail, groupMember.isAdmin());
     }
 
+    @Transactional
     public void addMemberToGroup(User user, AddGroupMemberRequest addGroupMemberRequest) {
         log.info("Adding member: {} to group: {}", addGroupMemberRequest.getMemberEmail(), addGroupMemberRequest.getGroupId());
-        Group group = checkForActiveGroup(addGroupMemberRequest.getGroupId());
+        Group group = groupRepository.findWithMembersByIdAndIsDeleted(addGroupMemberRequest.getGroupId(), false)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
 
         checkIfLoggedInUserIsAdmin(group.getId(), user.getUsername());
-        Optional<GroupMember> groupMember = groupMemberRepository.findByGroupIdMemberEmailAndIsActive(addGroupMemberRequest.getGroupId(),
-                addGroupMemberRequest.getMemberEmail(), true);
-        if (groupMember.isPresent()) {
+        if (groupMembershipIndex.isActiveMember(group.getId(), addGroupMemberRequest.getMemberEmail())) {
             throw new InvalidDataException("Member already exists");
         }
+        boolean isAdmin = addGroupMemberRequest.getRole() != null && addGroupMemberRequest.getRole() == Role.ADMIN;
+        groupChangeService.recordChanges(group.getId(), GroupChangeType.MEMBER_ADDED,
+                List.of(addGroupMemberRequest.getMemberEmail()));
         group.getMembers().stream()
                 .filter(member -> member.getGroupMemberId().getMemberEmail().equals(addGroupMemberRequest.getMemberEmail())
                         && !member.isActive())
                 .findAny()
                 .ifPresentOrElse(member -> {
                     member.setActive(true);
-                    member.setAdmin(addGroupMemberRequest.getRole() != null && addGroupMemberRequest.getRole() == Role.ADMIN);
+                    member.setAdmin(isAdmin);
                     groupMemberRepository.save(member);
                 }, () -> {
                     final var newGroupMember = createGroupMember(addGroupMemberRequest.getMemberEmail(), group);
-                    newGroupMember.setAdmin(addGroupMemberRequest.getRole() != null && addGroupMemberRequest.getRole() == Role.ADMIN);
+                    newGroupMember.setAdmin(isAdmin);
                     groupMemberRepository.save(newGroupMember);
                 });
+        groupMembershipIndex.memberAdded(group.getId(), addGroupMemberRequest.getMemberEmail(), isAdmin);
+        List<String> memberEmails = new ArrayList<>(DebtGraphService.memberEmailsOf(group.getMembers()));
+        memberEmails.add(addGroupMemberRequest.getMemberEmail());
+        debtGraphService.link(memberEmails);
 
         log.info("Notifying member: {}", addGroupMemberRequest.getMemberEmail());
         notificationService.notifyUser(MEMBER_ADDED, addGroupMemberRequest.getMemberEmail(),
@@ -244,118 +381,222 @@ public class SplitService {
 
     }
 
-    public double calculateSettlementAmount(List<Expense> expenses, String userEmail) {
-        log.info("Calculating settlement amount for user: {}", userEmail);
-        double settlementAmount = 0.0;
-        final var transactions = getLoggedInUserSettlements(expenses, userEmail);
-        for (final var transaction : transactions) {
-            if (transaction.getFromUser().equals(userEmail)) {
-                settlementAmount -= transaction.getAmount();
-            } else if (transaction.getToUser().equals(userEmail)) {
-                settlementAmount += transaction.getAmount();
-            }
+    public List<SettlementTransactionDTO> minimizeTransactions(Map<String, Long> balances) {
+        log.info("Minimizing transactions");
+        try (SettlementEngine engine = SettlementEngine.acquire()) {
+            balances.forEach(engine::add);
+            return engine.settle(settlementPolicy);
         }
-        return settlementAmount;
     }
 
-    public Map<String, Double> calculateNetBalances(List<Expense> expenses) {
-        log.info("Calculating net balances");
-        Map<String, Double> balances = new HashMap<>();
-
-        for (Expense expense : expenses) {
-            String payer = expense.getPaidBy();
-            double paidAmount = expense.getTotalAmount();
+    /**
+     * Returns the full settlement plan of a group, served from {@link SettlementPlanCache} while the group version is
+     * unchanged. The version comes from the group loaded before the balances are read, so a cached plan is never
+     * older than the version it is stored under.
+     */
+    public List<SettlementTransactionDTO> getSettlementPlan(Group group) {
+        return settlementPlanCache.get(group.getId(), versionOf(group),
+                () -> minimizeTransactions(balanceLedgerService.getNetBalances(group)));
+    }
 
-            balances.put(payer, balances.getOrDefault(payer, 0.0) + paidAmount);
+    static long versionOf(Group group) {
+        return group.getVersion() == null ? 0L : group.getVersion();
+    }
 
-            for (ExpenseSplit split : expense.getSplits()) {
+    public List<SettlementTransactionDTO> getLoggedInUserSettlements(List<SettlementTransactionDTO> settlementPlan,
+                                                                     String userEmail) {
+        log.info("Getting logged in user settlements for user email : {}", userEmail);
+        return settlementPlan.stream()
+                .filter(tx -> tx.getFromUser().equals(userEmail) || tx.getToUser().equals(userEmail))
+                .toList();
+    }
 
-                String debtor = split.getOwedBy();
-                double owedAmount = split.getAmountOwed();
+    public List<SettlementTransactionDTO> getAllSettlements(String loggedInEmail, String groupId) {
+        log.info("Getting all settlements for group: {}", groupId);
+        Group group = checkForActiveGroup(groupId);
+        if (!groupMembershipIndex.isActiveMember(groupId, loggedInEmail)) {
+            throw new InvalidDataException("User is not an admin");
+        }
+        return getLoggedInUserSettlements(getSettlementPlan(group), loggedInEmail);
+    }
 
-                balances.put(debtor, balances.getOrDefault(debtor, 0.0) - owedAmount);
-            }
+    /**
+     * @return every member's net balance in the group, either now or counting only the expenses created before
+     * {@code asOf}
+     */
+    public List<Balance> getGroupBalances(String loggedInEmail, String groupId, Date asOf) {
+        log.info("Getting balances for group: {} as of: {}", groupId, asOf);
+        Group group = checkForActiveGroup(groupId);
+        if (!groupMembershipIndex.isActiveMember(groupId, loggedInEmail)) {
+            throw new InvalidDataException("User is not an active user");
         }
+        Map<String, Long> balances = asOf == null
+                ? balanceLedgerService.getNetBalances(group)
+                : balanceSnapshotService.getNetBalancesAsOf(groupId, asOf);
+        return balances.entrySet().stream()
+                .map(entry -> new Balance(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(Balance::getEmail))
+                .toList();
+    }
 
-        return balances;
+    /**
+     * Settles the logged-in user's debts across all groups at once. Balances are netted over every member reachable
+     * through shared groups, so circular debts spanning several groups cancel out before any transfer is planned. A
+     * transfer may therefore be between two members who share no group themselves.
+     */
+    public List<SettlementTransactionDTO> getGlobalSettlements(String loggedInEmail) {
+        log.info("Getting global settlements for user: {}", loggedInEmail);
+        return getLoggedInUserSettlements(minimizeTransactions(debtGraphService.getComponentBalances(loggedInEmail)),
+                loggedInEmail);
     }
 
-    public List<SettlementTransactionDTO> minimizeTransactions(Map<String, Double> balances) {
-        log.info("Minimizing transactions");
-        PriorityQueue<Balance> creditors = new PriorityQueue<>((a, b) -> Double.compare(b.getAmount(), a.getAmount()));
-        PriorityQueue<Balance> debtors = new PriorityQueue<>((a, b) -> Double.compare(b.getAmount(), a.getAmount()));
-
-        for (Map.Entry<String, Double> entry : balances.entrySet()) {
-            if (entry.getValue() > 0) {
-                creditors.offer(new Balance(entry.getKey(), entry.getValue()));
-            } else if (entry.getValue() < 0) {
-                debtors.offer(new Balance(entry.getKey(), -entry.getValue()));
-            }
+    public GroupExpenseDTO getGroupInformation(String currentUserEmail, String groupId) {
+        log.info("Getting group information for group: {}", groupId);
+        GroupView group = groupRepository.findActiveViewById(groupId)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
+        if (!groupMembershipIndex.isActiveMember(groupId, currentUserEmail)) {
+            throw new InvalidDataException("User is not an active user");
         }
 
-        List<SettlementTransactionDTO> transactions = new ArrayList<>();
-
-        while (!creditors.isEmpty() && !debtors.isEmpty()) {
-            Balance creditor = creditors.poll();
-            Balance debtor = debtors.poll();
+        ExpensePage latestExpenses = fetchExpensePage(groupId, new ExpenseFilter(), null, DEFAULT_EXPENSE_PAGE_SIZE);
+        GroupExpenseDTO groupExpenseDTO = convertToExpenseDTO(group);
+        groupExpenseDTO.setExpenseSplits(latestExpenses.getExpenses());
+        groupExpenseDTO.setExpensesNextCursor(latestExpenses.getNextCursor());
+        return groupExpenseDTO;
+    }
 
-            assert debtor != null;
-            double settleAmount = Math.min(creditor.getAmount(), debtor.getAmount());
-            String from = debtor.getEmail();
-            String to = creditor.getEmail();
-            transactions.add(new SettlementTransactionDTO(from, to, settleAmount));
+    /**
+     * Returns what changed in a group after the version a client last saw: the added expenses with their splits and
+     * the current state of every member whose membership changed. When the change log cannot cover the gap, because
+     * the changes predate it or the client version is unknown, the client is told to refetch the whole group.
+     */
+    public GroupSyncResponse getGroupChanges(String currentUserEmail, String groupId, long sinceSequence) {
+        log.info("Getting changes for group: {} since sequence: {}", groupId, sinceSequence);
+        GroupVersion groupVersion = checkActiveMemberVersion(currentUserEmail, groupId);
+
+        long sequence = groupVersion.version() == null ? 0L : groupVersion.version();
+        GroupSyncResponse response = new GroupSyncResponse(groupId, sequence, false, List.of(), List.of());
+        if (sinceSequence == sequence) {
+            return response;
+        }
+        Long firstLoggedSequence = groupChangeRepository.findFirstSequence(groupId);
+        if (sinceSequence > sequence || firstLoggedSequence == null || firstLoggedSequence > sinceSequence + 1) {
+            response.setResyncRequired(true);
+            return response;
+        }
 
-            if (creditor.getAmount() > settleAmount) {
-                creditors.offer(new Balance(creditor.getEmail(), creditor.getAmount() - settleAmount));
+        List<String> expenseIds = new ArrayList<>();
+        Set<String> memberEmails = new HashSet<>();
+        for (GroupChange change : groupChangeRepository.findAllByGroupIdAndSequenceGreaterThanOrderBySequence(groupId, sinceSequence)) {
+            // the group was loaded first, so changes committed since then are left for the next sync
+            if (change.getSequence() > sequence) {
+                break;
             }
-            if (debtor.getAmount() > settleAmount) {
-                debtors.offer(new Balance(debtor.getEmail(), debtor.getAmount() - settleAmount));
+            if (change.getChangeType() == GroupChangeType.EXPENSE_ADDED) {
+                expenseIds.add(change.getEntityId());
+            } else {
+                memberEmails.add(change.getEntityId());
             }
         }
-        return transactions;
+        if (!expenseIds.isEmpty()) {
+            response.setExpenses(convertToExpenseDTOs(expenseRepository.findAllViewsByIdIn(expenseIds),
+                    expenseSplitRepository.findAllViewsByExpenseIdIn(expenseIds)));
+        }
+        if (!memberEmails.isEmpty()) {
+            response.setMembers(groupMemberRepository.findAllViewsByGroupIdAndMemberEmailIn(groupId, memberEmails).stream()
+                    .map(GroupMemberConverter::convertToGroupMemberDTO)
+                    .toList());
+        }
+        return response;
     }
 
-    public List<SettlementTransactionDTO> getLoggedInUserSettlements(List<Expense> expenses, String userEmail) {
-        log.info("Getting logged in user settlements for user email : {}", userEmail);
-        Map<String, Double> balances = calculateNetBalances(expenses);
+    public ExpensePage getGroupExpenses(String currentUserEmail, String groupId, ExpenseFilter filter, String cursor,
+                                        int limit) {
+        log.info("Getting expenses for group: {}", groupId);
+        if (limit < 1 || limit > MAX_EXPENSE_PAGE_SIZE) {
+            throw new InvalidDataException(format("Limit must be between 1 and %d", MAX_EXPENSE_PAGE_SIZE));
+        }
+        checkActiveMemberVersion(currentUserEmail, groupId);
+        return fetchExpensePage(groupId, filter, cursor == null ? null : ExpenseCursor.decode(cursor), limit);
+    }
 
-        List<SettlementTransactionDTO> allTransactions = minimizeTransactions(balances);
+    private ExpensePage fetchExpensePage(String groupId, ExpenseFilter filter, ExpenseCursor after, int limit) {
+        // one extra id tells whether another page follows
+        List<String> ids = expenseRepository.findPageIds(groupId, filter, after, limit + 1);
+        List<String> pageIds = ids.size() > limit ? ids.subList(0, limit) : ids;
+        if (pageIds.isEmpty()) {
+            return new ExpensePage(List.of(), null);
+        }
+        List<ExpenseView> expenses = expenseRepository.findAllViewsByIdIn(pageIds);
+        List<ExpenseSplitView> splits = expenseSplitRepository.findAllViewsByExpenseIdIn(pageIds);
 
-        return allTransactions.stream()
-                .filter(tx -> tx.getFromUser().equals(userEmail) || tx.getToUser().equals(userEmail))
-                .toList();
+        String nextCursor = null;
+        if (ids.size() > limit) {
+            ExpenseView last = expenses.get(expenses.size() - 1);
+            nextCursor = new ExpenseCursor(last.createdAt(), last.id()).encode();
+        }
+        return new ExpensePage(convertToExpenseDTOs(expenses, splits), nextCursor);
     }
 
-    public List<SettlementTransactionDTO> getAllSettlements(String loggedInEmail, String groupId) {
-        log.info("Getting all settlements for group: {}", groupId);
-        Group group = checkForActiveGroup(groupId);
-        groupMemberRepository.findByGroupIdMemberEmailAndIsActive(groupId, loggedInEmail, true)
-                .orElseThrow(() -> new InvalidDataException("User is not an admin"));
-        List<Expense> expenses = expenseRepository.findAllExpensesWithSplits(group.getId());
-        return getLoggedInUserSettlements(expenses, loggedInEmail);
+    public void checkIfLoggedInUserIsAdmin(String groupId, String email) {
+        if (!groupMembershipIndex.isActiveAdmin(groupId, email)) {
+            throw new InvalidDataException("User is not present/user is verified");
+        }
     }
 
-    public GroupExpenseDTO getGroupInformation(String currentUserEmail, String groupId) {
-        log.info("Getting group information for group: {}", groupId);
-        Group group = checkForActiveGroup(groupId);
+    /**
+     * Strong validator for {@link #getGroupInformation}. Only the group version row and the membership are read, so
+     * a matching conditional request skips loading expenses altogether.
+     */
+    public String getGroupInformationETag(String currentUserEmail, String groupId) {
+        GroupVersion groupVersion = checkActiveMemberVersion(currentUserEmail, groupId);
+        return eTag("group", groupVersion);
+    }
 
-        groupMemberRepository.findByGroupIdMemberEmailAndIsActive(groupId, currentUserEmail, true)
-                .orElseThrow(() -> new InvalidDataException("User is not an active user"));
+    /**
+     * Strong validator for {@link #getAllSettlements}; the caller's part of the plan only changes with the group
+     * version.
+     */
+    public String getSettlementsETag(String currentUserEmail, String groupId) {
+        GroupVersion groupVersion = checkActiveMemberVersion(currentUserEmail, groupId);
+        return eTag("settlements:" + currentUserEmail, groupVersion);
+    }
 
-        List<Expense> expenses = expenseRepository.findAllExpensesWithSplits(group.getId());
-        GroupExpenseDTO groupExpenseDTO = convertToExpenseDTO(group);
-        groupExpenseDTO.setExpenseSplits(convertToExpenseDTOs(expenses));
-        return groupExpenseDTO;
+    /**
+     * Strong validator for {@link #fetchAllGroupSummary}, covering which groups the user is in and the version of
+     * each of them.
+     */
+    public String getAllGroupSummaryETag(String currentUserEmail) {
+        return eTag("summary:" + currentUserEmail,
+                groupRepository.findAllActiveVersionsByUserId(currentUserEmail).toArray(GroupVersion[]::new));
     }
 
-    public void checkIfLoggedInUserIsAdmin(String groupId, String email) {
-        groupMemberRepository.findByGroupIdMemberEmailAndIsActive(groupId, email, true)
-                .filter(GroupMember::isAdmin)
-                .orElseThrow(() -> new InvalidDataException("User is not present/user is verified"));
+    private GroupVersion checkActiveMemberVersion(String currentUserEmail, String groupId) {
+        GroupVersion groupVersion = groupRepository.findActiveVersionById(groupId)
+                .orElseThrow(() -> new InvalidDataException("Group not found"));
+        if (!groupMembershipIndex.isActiveMember(groupId, currentUserEmail)) {
+            throw new InvalidDataException("User is not an active user");
+        }
+        return groupVersion;
+    }
+
+    private static String eTag(String scope, GroupVersion... groupVersions) {
+        StringBuilder validator = new StringBuilder(scope);
+        for (GroupVersion groupVersion : groupVersions) {
+            validator.append('|').append(groupVersion.id())
+                    .append(':').append(groupVersion.version() == null ? 0L : groupVersion.version())
+                    .append(':').append(groupVersion.updatedAt() == null ? 0L : groupVersion.updatedAt().getTime());
+        }
+        return "\"" + sha256Hex(validator.toString()).substring(0, 32) + "\"";
     }
 
     public Group checkForActiveGroup(String groupId) {
-        return groupRepository.findByIdAndIsDeleted(groupId, false)
+        return findActiveGroup(groupId)
                 .orElseThrow(() -> new InvalidDataException("Group not found"));
     }
+
+    // served from the entity cache, which a write to one group invalidates for that group only
+    private Optional<Group> findActiveGroup(String groupId) {
+        return groupRepository.findById(groupId).filter(group -> !group.isDeleted());
+    }
 }
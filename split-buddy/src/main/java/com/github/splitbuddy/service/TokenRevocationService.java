@@ -0,0 +1,139 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dtos.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.splitbuddy.utils.HashUtil.sha256Hex;
+
+/**
+ * Revokes the access tokens of a user that were issued before a point in time. Tokens carrying embedded principal
+ * claims are trusted without reading the user, so their id, full name, role and email verification are only as fresh
+ * as the token: a write changing any of them that does not call {@link #revokeTokens} leaves requests seeing the old
+ * values until the token expires, at most {@code jwt.token.expiration} later. Registration and email verification
+ * revoke; signing up through Google creates a user with no earlier tokens, and rehashing a password on login changes
+ * nothing a token carries. Nothing else writes users today, and a new write path must either revoke or accept that
+ * window.
+ * <p>
+ * The revocation time lives in Redis for as long as an access token can live. Lookups are cached locally for a short
+ * time, including the answer that nothing was revoked, so the check costs no round trip on most requests; a
+ * revocation made on another node takes effect within that time. Redis failures are logged and treated as no
+ * revocation, which is what the database-backed principals offer too.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final long NOT_REVOKED = 0L;
+
+    private final RedisService redisService;
+    private final long accessTokenExpiration;
+    private final long cacheTtlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CachedRevocation> revocations;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TokenRevocationService(RedisService redisService, MeterRegistry meterRegistry,
+                                  @Value("${jwt.token.expiration}") long accessTokenExpiration,
+                                  @Value("${jwt.revocation.cache.max-entries:10000}") int maxEntries,
+                                  @Value("${jwt.revocation.cache.ttl-ms:5000}") long cacheTtlMillis) {
+        this.redisService = redisService;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis);
+        this.revocations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRevocation> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("jwt.revocation.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jwt.revocation.cache", "result", "miss");
+        meterRegistry.gauge("jwt.revocation.cache.size", this, TokenRevocationService::size);
+    }
+
+    /**
+     * Revokes every access token of the user issued up to now. Issue times are compared to the millisecond, so a token
+     * issued right after the revocation, such as on the login that follows verifying an email, stays valid. Tokens
+     * issued before the millisecond claim existed only carry whole seconds and are revoked up to the end of the second.
+     */
+    public void revokeTokens(String email) {
+        long revokedAt = System.currentTimeMillis();
+        try {
+            redisService.put(redisKey(email), String.valueOf(revokedAt), accessTokenExpiration);
+        } catch (Exception e) {
+            log.warn("Failed to store token revocation for user: {} in redis", email, e);
+        }
+        lock.lock();
+        try {
+            revocations.put(email, new CachedRevocation(revokedAt, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        long revokedAt = getRevokedAt(token.subject());
+        return revokedAt != NOT_REVOKED && token.issuedAt().getTime() <= revokedAt;
+    }
+
+    public double size() {
+        lock.lock();
+        try {
+            return revocations.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long getRevokedAt(String email) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            CachedRevocation cached = revocations.get(email);
+            if (cached != null && now - cached.loadedAt() < cacheTtlNanos) {
+                hits.increment();
+                return cached.revokedAt();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        long revokedAt = loadRevokedAt(email);
+        lock.lock();
+        try {
+            // revocations only move forward, so a slow reader never hides a later one another thread already cached
+            return revocations.merge(email, new CachedRevocation(revokedAt, now), (current, candidate) ->
+                    new CachedRevocation(Math.max(current.revokedAt(), candidate.revokedAt()), now)).revokedAt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long loadRevokedAt(String email) {
+        try {
+            String revokedAt = redisService.get(redisKey(email));
+            return revokedAt == null ? NOT_REVOKED : Long.parseLong(revokedAt);
+        } catch (Exception e) {
+            log.warn("Failed to read token revocation for user: {} from redis", email, e);
+            return NOT_REVOKED;
+        }
+    }
+
+    private static String redisKey(String email) {
+        return sha256Hex(email + "_tokens_revoked_at");
+    }
+
+    private record CachedRevocation(long revokedAt, long loadedAt) {
+    }
+}
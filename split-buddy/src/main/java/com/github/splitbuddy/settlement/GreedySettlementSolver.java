@@ -0,0 +1,82 @@
+package com.github.splitbuddy.settlement;
+
+/**
+ * Repeatedly matches the largest creditor with the largest debtor. Runs in O(n log n) and never gives up, but may
+ * produce more transfers than necessary. Creditors and debtors live in two int max-heaps keyed by the outstanding
+ * amount so a partially settled member is sifted back in place instead of being re-allocated.
+ */
+final class GreedySettlementSolver implements SettlementSolver {
+
+    private long[] balances;
+    private int[] creditors = new int[16];
+    private int[] debtors = new int[16];
+
+    @Override
+    public boolean solve(long[] balances, int memberCount, TransferSink sink, long deadlineNanos) {
+        this.balances = balances;
+        if (creditors.length < memberCount) {
+            creditors = new int[memberCount];
+            debtors = new int[memberCount];
+        }
+
+        int creditorCount = 0;
+        int debtorCount = 0;
+        for (int id = 0; id < memberCount; id++) {
+            if (balances[id] > 0) {
+                creditors[creditorCount++] = id;
+            } else if (balances[id] < 0) {
+                debtors[debtorCount++] = id;
+            }
+        }
+        heapify(creditors, creditorCount, 1);
+        heapify(debtors, debtorCount, -1);
+
+        while (creditorCount > 0 && debtorCount > 0) {
+            int creditor = creditors[0];
+            int debtor = debtors[0];
+            long settleAmount = Math.min(balances[creditor], -balances[debtor]);
+            sink.transfer(debtor, creditor, settleAmount);
+
+            balances[creditor] -= settleAmount;
+            balances[debtor] += settleAmount;
+            creditorCount = settleTop(creditors, creditorCount, balances[creditor] > 0, 1);
+            debtorCount = settleTop(debtors, debtorCount, balances[debtor] < 0, -1);
+        }
+        this.balances = null;
+        return true;
+    }
+
+    private int settleTop(int[] heap, int count, boolean stillOpen, int sign) {
+        if (!stillOpen) {
+            heap[0] = heap[--count];
+        }
+        siftDown(heap, count, 0, sign);
+        return count;
+    }
+
+    private void heapify(int[] heap, int count, int sign) {
+        for (int i = (count >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, count, i, sign);
+        }
+    }
+
+    // sign flips debtor balances so both heaps order by outstanding amount, largest first
+    private void siftDown(int[] heap, int count, int index, int sign) {
+        int id = heap[index];
+        long key = sign * balances[id];
+        int half = count >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < count && sign * balances[heap[right]] > sign * balances[heap[child]]) {
+                child = right;
+            }
+            if (key >= sign * balances[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = id;
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.splitbuddy.settlement;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from member email to a dense int id. Ids are handed out in insertion order so they can be used
+ * directly as indexes into primitive arrays. Reusable: {@link #clear()} keeps the backing tables.
+ */
+final class MemberInterner {
+
+    private String[] slots;
+    private int[] slotIds;
+    private String[] emails;
+    private int size;
+
+    MemberInterner(int expectedMembers) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedMembers) * 2 - 1) << 1;
+        slots = new String[capacity];
+        slotIds = new int[capacity];
+        emails = new String[capacity >> 1];
+    }
+
+    int intern(String email) {
+        int mask = slots.length - 1;
+        int slot = mix(email.hashCode()) & mask;
+        while (slots[slot] != null) {
+            if (slots[slot].equals(email)) {
+                return slotIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == emails.length) {
+            grow();
+            return intern(email);
+        }
+        int id = size++;
+        slots[slot] = email;
+        slotIds[slot] = id;
+        emails[id] = email;
+        return id;
+    }
+
+    int find(String email) {
+        int mask = slots.length - 1;
+        int slot = mix(email.hashCode()) & mask;
+        while (slots[slot] != null) {
+            if (slots[slot].equals(email)) {
+                return slotIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    String email(int id) {
+        return emails[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(slots, null);
+        Arrays.fill(emails, 0, size, null);
+        size = 0;
+    }
+
+    private void grow() {
+        String[] known = Arrays.copyOf(emails, size);
+        slots = new String[slots.length << 1];
+        slotIds = new int[slots.length];
+        emails = new String[slots.length >> 1];
+        size = 0;
+        for (String email : known) {
+            intern(email);
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.splitbuddy.settlement;
+
+/**
+ * Exact solver for the minimum number of transfers. With k open balances the answer is k minus the largest number of
+ * disjoint zero-sum subsets they can be partitioned into, since each such subset of size s settles in s - 1 transfers.
+ * That maximum is found with a DP over subset bitmasks in O(2^k * k), so callers must keep k small.
+ * <p>
+ * The DP tables take 9 bytes per subset. Tables up to {@link #RETAINED_SUBSETS} entries are kept for the next call;
+ * larger ones are allocated per call and dropped, so an engine parked in a thread local never pins megabytes.
+ */
+final class MinimumTransferSettlementSolver implements SettlementSolver {
+
+    static final int MAX_MEMBERS = 20;
+    private static final int RETAINED_SUBSETS = 1 << 12;
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 10;
+
+    private int[] members = new int[MAX_MEMBERS];
+    private long[] amounts = new long[MAX_MEMBERS];
+    private int[] order = new int[MAX_MEMBERS];
+    private long[] subsetSums = new long[0];
+    private byte[] zeroSumSubsets = new byte[0];
+
+    @Override
+    public boolean solve(long[] balances, int memberCount, TransferSink sink, long deadlineNanos) {
+        int open = 0;
+        long total = 0;
+        for (int id = 0; id < memberCount; id++) {
+            if (balances[id] != 0) {
+                if (open == MAX_MEMBERS) {
+                    return false;
+                }
+                members[open] = id;
+                amounts[open++] = balances[id];
+                total += balances[id];
+            }
+        }
+        if (open == 0) {
+            return true;
+        }
+        // both are known before the tables are allocated
+        if (total != 0 || System.nanoTime() > deadlineNanos) {
+            return false;
+        }
+
+        int full = (1 << open) - 1;
+        long[] subsetSums = this.subsetSums;
+        byte[] zeroSumSubsets = this.zeroSumSubsets;
+        if (subsetSums.length <= full) {
+            subsetSums = new long[full + 1];
+            zeroSumSubsets = new byte[full + 1];
+            if (full < RETAINED_SUBSETS) {
+                this.subsetSums = subsetSums;
+                this.zeroSumSubsets = zeroSumSubsets;
+            }
+        }
+
+        // zeroSumSubsets[mask] = most disjoint zero-sum groups the members in mask can be split into
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadlineNanos) {
+                return false;
+            }
+            int lowest = mask & -mask;
+            subsetSums[mask] = subsetSums[mask ^ lowest] + amounts[Integer.numberOfTrailingZeros(lowest)];
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                best = Math.max(best, zeroSumSubsets[mask ^ (rest & -rest)]);
+            }
+            zeroSumSubsets[mask] = (byte) (best + (subsetSums[mask] == 0 ? 1 : 0));
+        }
+
+        // walk the DP back to an insertion order in which every zero-sum group is contiguous
+        int mask = full;
+        for (int position = open - 1; position >= 0; position--) {
+            int target = zeroSumSubsets[mask] - (subsetSums[mask] == 0 ? 1 : 0);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (zeroSumSubsets[mask ^ bit] == target) {
+                    order[position] = Integer.numberOfTrailingZeros(bit);
+                    mask ^= bit;
+                    break;
+                }
+            }
+        }
+
+        int groupStart = 0;
+        long prefix = 0;
+        for (int position = 0; position < open; position++) {
+            prefix += amounts[order[position]];
+            if (prefix == 0) {
+                settleGroup(groupStart, position + 1, sink);
+                groupStart = position + 1;
+            }
+        }
+        return true;
+    }
+
+    // any order that closes at least one member per transfer settles a zero-sum group of size s in s - 1 transfers
+    private void settleGroup(int from, int to, TransferSink sink) {
+        int creditor = nextOpen(from, to, 1);
+        int debtor = nextOpen(from, to, -1);
+        while (creditor < to && debtor < to) {
+            long settleAmount = Math.min(amounts[order[creditor]], -amounts[order[debtor]]);
+            sink.transfer(members[order[debtor]], members[order[creditor]], settleAmount);
+            amounts[order[creditor]] -= settleAmount;
+            amounts[order[debtor]] += settleAmount;
+            if (amounts[order[creditor]] == 0) {
+                creditor = nextOpen(creditor + 1, to, 1);
+            }
+            if (amounts[order[debtor]] == 0) {
+                debtor = nextOpen(debtor + 1, to, -1);
+            }
+        }
+    }
+
+    private int nextOpen(int position, int to, int sign) {
+        while (position < to && Long.signum(amounts[order[position]]) != sign) {
+            position++;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.splitbuddy.settlement;
+
+import com.github.splitbuddy.dtos.SettlementTransactionDTO;
+import com.github.splitbuddy.enums.SolverMode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Settlement over primitive arrays. Members are interned to dense ids and minor unit balances accumulate into a
+ * {@code long[]}; a {@link SettlementSolver} then works on those ids, so the only objects created while settling are
+ * the resulting {@link SettlementTransactionDTO}s.
+ * <p>
+ * Instances are not thread safe. {@link #acquire()} lends an instance from a small shared pool and {@link #close()}
+ * gives it back, so its buffers are reused by later callers on any thread; the engine returned last is lent first.
+ * The pool is not kept per thread because with virtual threads every request runs on a new one, which would allocate
+ * and drop an engine each time. When the pool is empty a new engine is created, and one returned to a full pool is
+ * left to the garbage collector.
+ */
+@Slf4j
+public final class SettlementEngine implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // settling is CPU bound, so about as many engines as cores are ever busy at once
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final BlockingDeque<SettlementEngine> POOL = new LinkedBlockingDeque<>(POOL_SIZE);
+
+    private final MemberInterner members = new MemberInterner(INITIAL_CAPACITY);
+    private final SettlementSolver greedySolver = new GreedySettlementSolver();
+    private final SettlementSolver minimumTransferSolver = new MinimumTransferSettlementSolver();
+    private long[] balances = new long[INITIAL_CAPACITY];
+    private long[] working = new long[INITIAL_CAPACITY];
+    // set while the engine sits in the pool, so closing it twice cannot lend it to two callers
+    private boolean pooled;
+
+    public static SettlementEngine acquire() {
+        SettlementEngine engine = POOL.pollFirst();
+        if (engine == null) {
+            return new SettlementEngine();
+        }
+        engine.pooled = false;
+        return engine;
+    }
+
+    /**
+     * Returns the engine to the pool. It must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (pooled) {
+            return;
+        }
+        reset();
+        pooled = true;
+        POOL.offerFirst(this);
+    }
+
+    public void reset() {
+        Arrays.fill(balances, 0, members.size(), 0L);
+        members.clear();
+    }
+
+    public void add(String email, long delta) {
+        int id = members.intern(email);
+        if (id == balances.length) {
+            balances = Arrays.copyOf(balances, balances.length << 1);
+            working = new long[balances.length];
+        }
+        balances[id] += delta;
+    }
+
+    public long balanceOf(String email) {
+        int id = members.find(email);
+        return id < 0 ? 0L : balances[id];
+    }
+
+    public List<SettlementTransactionDTO> settle() {
+        return settle(SettlementPolicy.GREEDY);
+    }
+
+    public List<SettlementTransactionDTO> settle(SettlementPolicy policy) {
+        int memberCount = members.size();
+        int openCount = 0;
+        long total = 0;
+        for (int id = 0; id < memberCount; id++) {
+            if (balances[id] != 0) {
+                openCount++;
+                total += balances[id];
+            }
+        }
+
+        List<SettlementTransactionDTO> transactions = new ArrayList<>(openCount);
+        SettlementSolver.TransferSink sink = (from, to, amount) ->
+                transactions.add(new SettlementTransactionDTO(members.email(from), members.email(to), amount));
+
+        if (policy.mode() == SolverMode.OPTIMAL && openCount <= policy.optimalMaxMembers() && total != 0) {
+            log.warn("Balances of {} members do not sum to zero (off by {}), falling back to greedy", openCount, total);
+        } else if (policy.mode() == SolverMode.OPTIMAL && openCount <= policy.optimalMaxMembers()) {
+            System.arraycopy(balances, 0, working, 0, memberCount);
+            long deadline = System.nanoTime() + policy.timeBudget().toNanos();
+            if (minimumTransferSolver.solve(working, memberCount, sink, deadline)) {
+                return transactions;
+            }
+            log.warn("Minimum transfer solver did not finish within {} ms for {} members, falling back to greedy",
+                    policy.timeBudget().toMillis(), openCount);
+        }
+        System.arraycopy(balances, 0, working, 0, memberCount);
+        greedySolver.solve(working, memberCount, sink, Long.MAX_VALUE);
+        return transactions;
+    }
+}
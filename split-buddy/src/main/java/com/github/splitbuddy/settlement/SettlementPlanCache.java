@@ -0,0 +1,164 @@
+package com.github.splitbuddy.settlement;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dtos.SettlementTransactionDTO;
+import com.github.splitbuddy.service.RedisService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches full settlement plans per group. Entries are keyed by group id and group version; every write that can
+ * change a plan bumps the version, so a stale plan is simply never looked up again and no explicit eviction is needed.
+ * <p>
+ * The local tier is a bounded LRU holding one plan per group. The optional Redis tier lets nodes share plans computed
+ * elsewhere; it is best effort and any Redis failure falls back to recomputing.
+ */
+@Slf4j
+@Component
+public class SettlementPlanCache {
+
+    private static final String REDIS_KEY_FORMAT = "settlement-plan:%s:%d";
+    private static final TypeReference<List<SettlementTransactionDTO>> PLAN_TYPE = new TypeReference<>() {
+    };
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final long redisTtlMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, VersionedPlan> localPlans;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public SettlementPlanCache(RedisService redisService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${settlement.plan-cache.max-entries:10000}") int maxEntries,
+                               @Value("${settlement.plan-cache.redis.enabled:false}") boolean redisEnabled,
+                               @Value("${settlement.plan-cache.redis.ttl-ms:3600000}") long redisTtlMillis) {
+        this.redisService = redisService;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.redisTtlMillis = redisTtlMillis;
+        this.localPlans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VersionedPlan> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.localHits = meterRegistry.counter("settlement.plan.cache", "tier", "local", "result", "hit");
+        this.redisHits = meterRegistry.counter("settlement.plan.cache", "tier", "redis", "result", "hit");
+        this.misses = meterRegistry.counter("settlement.plan.cache", "tier", "all", "result", "miss");
+        meterRegistry.gauge("settlement.plan.cache.size", this, SettlementPlanCache::size);
+    }
+
+    /**
+     * Returns the plan for the given group version, computing it with the loader on a miss. The version must be read
+     * before the loader reads balances so a cached plan is never older than its key.
+     */
+    public List<SettlementTransactionDTO> get(String groupId, long version,
+                                              Supplier<List<SettlementTransactionDTO>> loader) {
+        List<SettlementTransactionDTO> plan = getIfPresent(groupId, version);
+        if (plan == null) {
+            plan = put(groupId, version, loader.get());
+        }
+        return plan;
+    }
+
+    /**
+     * @return the cached plan for the given group version, or {@code null} when neither tier has it
+     */
+    public List<SettlementTransactionDTO> getIfPresent(String groupId, long version) {
+        VersionedPlan cached = getLocal(groupId);
+        if (cached != null && cached.version() == version) {
+            localHits.increment();
+            return cached.plan();
+        }
+
+        List<SettlementTransactionDTO> plan = getFromRedis(groupId, version);
+        if (plan == null) {
+            misses.increment();
+            return null;
+        }
+        redisHits.increment();
+        putLocal(groupId, new VersionedPlan(version, plan));
+        return plan;
+    }
+
+    public List<SettlementTransactionDTO> put(String groupId, long version, List<SettlementTransactionDTO> plan) {
+        List<SettlementTransactionDTO> immutablePlan = List.copyOf(plan);
+        putInRedis(groupId, version, immutablePlan);
+        putLocal(groupId, new VersionedPlan(version, immutablePlan));
+        return immutablePlan;
+    }
+
+    public double size() {
+        lock.lock();
+        try {
+            return localPlans.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private VersionedPlan getLocal(String groupId) {
+        lock.lock();
+        try {
+            return localPlans.get(groupId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putLocal(String groupId, VersionedPlan plan) {
+        lock.lock();
+        try {
+            // never let a slow reader replace a newer plan another thread already cached
+            localPlans.merge(groupId, plan, (current, candidate) ->
+                    candidate.version() >= current.version() ? candidate : current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<SettlementTransactionDTO> getFromRedis(String groupId, long version) {
+        if (!redisEnabled) {
+            return null;
+        }
+        try {
+            List<SettlementTransactionDTO> plan = redisService.get(redisKey(groupId, version), PLAN_TYPE);
+            return plan == null ? null : List.copyOf(plan);
+        } catch (Exception e) {
+            log.warn("Failed to read settlement plan for group id: {} from redis", groupId, e);
+            return null;
+        }
+    }
+
+    private void putInRedis(String groupId, long version, List<SettlementTransactionDTO> plan) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisService.put(redisKey(groupId, version), objectMapper.writeValueAsString(plan), redisTtlMillis);
+        } catch (Exception e) {
+            log.warn("Failed to write settlement plan for group id: {} to redis", groupId, e);
+        }
+    }
+
+    private static String redisKey(String groupId, long version) {
+        return String.format(REDIS_KEY_FORMAT, groupId, version);
+    }
+
+    private record VersionedPlan(long version, List<SettlementTransactionDTO> plan) {
+    }
+}
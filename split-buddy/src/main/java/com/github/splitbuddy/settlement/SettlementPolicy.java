@@ -0,0 +1,23 @@
+package com.github.splitbuddy.settlement;
+
+import com.github.splitbuddy.enums.SolverMode;
+
+import java.time.Duration;
+
+/**
+ * Which solver to run for a settlement. {@link SolverMode#OPTIMAL} is only attempted when at most
+ * {@code optimalMaxMembers} members have an open balance and gives up after {@code timeBudget}.
+ * {@code optimalMaxMembers} is capped at {@link #MAX_OPTIMAL_MEMBERS}, the solver's memory grows as 2^n.
+ */
+public record SettlementPolicy(SolverMode mode, int optimalMaxMembers, Duration timeBudget) {
+
+    public static final int MAX_OPTIMAL_MEMBERS = MinimumTransferSettlementSolver.MAX_MEMBERS;
+    public static final SettlementPolicy GREEDY = new SettlementPolicy(SolverMode.GREEDY, 0, Duration.ZERO);
+
+    public SettlementPolicy {
+        if (optimalMaxMembers < 0 || optimalMaxMembers > MAX_OPTIMAL_MEMBERS) {
+            throw new IllegalArgumentException("Optimal solver member limit must be between 0 and "
+                    + MAX_OPTIMAL_MEMBERS + " but was " + optimalMaxMembers);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.splitbuddy.settlement;
+
+/**
+ * Turns net balances into transfers. Members are identified by their dense engine id and balances are minor units,
+ * positive for creditors and negative for debtors. Implementations may use the balances array as scratch space.
+ */
+public interface SettlementSolver {
+
+    /**
+     * @return {@code false} when the solver ran out of time or cannot handle the balances, e.g. too many of them or
+     * a non-zero total; nothing has been emitted to the sink in that case and the caller is expected to fall back to
+     * another solver
+     */
+    boolean solve(long[] balances, int memberCount, TransferSink sink, long deadlineNanos);
+
+    @FunctionalInterface
+    interface TransferSink {
+        void transfer(int fromMember, int toMember, long amount);
+    }
+}
@@ -1,82 +1,113 @@
 package com.github.splitbuddy.utils;
 
+import com.github.splitbuddy.cache.VerifiedTokenCache;
+import com.github.splitbuddy.dtos.VerifiedToken;
+import com.github.splitbuddy.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+
+import static com.github.splitbuddy.utils.HashUtil.sha256Hex;
 
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    String JWT_SECRET;
-
-    @Value("${jwt.token.expiration}")
-    long JWT_EXPIRATION;
-
-    @Value("${jwt.refresh.token.expiration}")
-    long JWT_REFRESH_EXPIRATION;
-
-    public String generateToken(String username) {
-        return createToken(Map.of("type", "access"), username, JWT_EXPIRATION);
+    private static final String TYPE = "type";
+    private static final String USER_ID = "uid";
+    private static final String FULL_NAME = "name";
+    private static final String ROLE = "role";
+    private static final String EMAIL_VERIFIED = "email_verified";
+    // the standard issue time only has second precision, which revocation needs finer
+    private static final String ISSUED_AT_MILLIS = "iat_ms";
+
+    private final long jwtExpiration;
+    private final long jwtRefreshExpiration;
+    private final boolean embeddedClaims;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.token.expiration}") long jwtExpiration,
+                    @Value("${jwt.refresh.token.expiration}") long jwtRefreshExpiration,
+                    @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheMaxEntries,
+                    @Value("${jwt.embedded-claims.enabled:false}") boolean embeddedClaims,
+                    MeterRegistry meterRegistry) {
+        this.jwtExpiration = jwtExpiration;
+        this.jwtRefreshExpiration = jwtRefreshExpiration;
+        this.embeddedClaims = embeddedClaims;
+        this.signInKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(meterRegistry, verifiedCacheMaxEntries);
     }
 
-    public String generateRefreshToken(String username) {
-        return createToken(Map.of("type", "refresh"), username, JWT_REFRESH_EXPIRATION);
+    public String generateToken(String username) {
+        return createToken(Map.of(TYPE, VerifiedToken.ACCESS), username, jwtExpiration);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Issues an access token for the user. With embedded claims enabled the token also carries the user id, full name,
+     * role and whether the email is verified, so requests presenting it are authenticated without reading the user.
+     */
+    public String generateToken(User user) {
+        if (!embeddedClaims) {
+            return generateToken(user.getUsername());
+        }
+        return createToken(Map.of(
+                TYPE, VerifiedToken.ACCESS,
+                USER_ID, user.getId(),
+                FULL_NAME, user.getFullName(),
+                ROLE, user.getRole().name(),
+                EMAIL_VERIFIED, Boolean.TRUE.equals(user.getIsEmailVerified())), user.getUsername(), jwtExpiration);
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public String generateRefreshToken(String username) {
+        return createToken(Map.of(TYPE, VerifiedToken.REFRESH), username, jwtRefreshExpiration);
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Checks the signature and expiry of a token and returns its claims. A token is parsed only the first time it is
+     * seen; later calls are served from the cache until it expires.
+     *
+     * @throws io.jsonwebtoken.JwtException when the token is malformed, badly signed or expired
+     */
+    public VerifiedToken verify(String token) {
+        String tokenHash = sha256Hex(token);
+        VerifiedToken verified = verifiedTokens.get(tokenHash);
+        if (verified != null) {
+            return verified;
+        }
+        Claims claims = extractAllClaims(token);
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS, Long.class);
+        Date issuedAt = issuedAtMillis == null ? claims.getIssuedAt() : new Date(issuedAtMillis);
+        verified = new VerifiedToken(claims.getSubject(), claims.get(TYPE, String.class), issuedAt,
+                claims.getExpiration(), claims.get(USER_ID, String.class), claims.get(FULL_NAME, String.class),
+                claims.get(ROLE, String.class), claims.get(EMAIL_VERIFIED, Boolean.class));
+        verifiedTokens.put(tokenHash, verified);
+        return verified;
     }
 
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .claim(ISSUED_AT_MILLIS, now)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signInKey)
                 .compact();
     }
 
-    private SecretKey getSignInKey() {
-        return Keys.hmacShaKeyFor(JWT_SECRET.getBytes());
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    public boolean isTokenValid(String token) {
-        return !isTokenExpired(token);
-    }
-
-    public boolean isValidAccessToken(String token) {
-        return extractClaim(token, claims -> claims.get("type").equals("access"));
+        return parser.parseSignedClaims(token).getPayload();
     }
-}
\ No newline at end of file
+}
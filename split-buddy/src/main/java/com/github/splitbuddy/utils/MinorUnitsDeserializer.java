@@ -0,0 +1,20 @@
+package com.github.splitbuddy.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+public class MinorUnitsDeserializer extends JsonDeserializer<Long> {
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return MoneyUtil.toMinorUnits(new BigDecimal(parser.getText().trim()));
+        }
+        return MoneyUtil.toMinorUnits(parser.getDecimalValue());
+    }
+}
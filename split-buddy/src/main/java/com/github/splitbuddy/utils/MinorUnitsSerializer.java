@@ -0,0 +1,15 @@
+package com.github.splitbuddy.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+public class MinorUnitsSerializer extends JsonSerializer<Long> {
+
+    @Override
+    public void serialize(Long value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeNumber(MoneyUtil.toMajorUnits(value));
+    }
+}
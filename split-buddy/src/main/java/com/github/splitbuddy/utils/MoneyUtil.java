@@ -0,0 +1,25 @@
+package com.github.splitbuddy.utils;
+
+import com.github.splitbuddy.exception.InvalidDataException;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is carried as a {@code long} count of minor units (cents) everywhere inside the application. Decimal amounts
+ * only exist at the edges: JSON payloads and email templates.
+ */
+public class MoneyUtil {
+
+    public static final int MINOR_UNIT_DIGITS = 2;
+
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount.stripTrailingZeros().scale() > MINOR_UNIT_DIGITS) {
+            throw new InvalidDataException("Amount must not have more than " + MINOR_UNIT_DIGITS + " decimal places");
+        }
+        return amount.movePointRight(MINOR_UNIT_DIGITS).longValueExact();
+    }
+
+    public static BigDecimal toMajorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_DIGITS);
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.splitbuddy.utils;
 
+import com.github.splitbuddy.id.IdGenerator;
+import com.github.splitbuddy.id.UuidV7IdGenerator;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.PrintWriter;
@@ -7,12 +9,20 @@ import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 public class SplitUtil {
 
-    public static String generateUUID() {
-        return UUID.randomUUID().toString().replace("-", "").substring(32);
+    private static volatile IdGenerator idGenerator = new UuidV7IdGenerator();
+
+    /**
+     * @return a new time-ordered entity id from the configured {@link IdGenerator}
+     */
+    public static String generateId() {
+        return idGenerator.nextId();
+    }
+
+    public static void setIdGenerator(IdGenerator generator) {
+        idGenerator = generator;
     }
 
     public static Map<String, Object> buildErrorMap(Throwable ex, String customMessage) {
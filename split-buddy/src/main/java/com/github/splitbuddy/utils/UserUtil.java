@@ -1,6 +1,8 @@
 package com.github.splitbuddy.utils;
 
+import com.github.splitbuddy.dtos.VerifiedToken;
 import com.github.splitbuddy.entity.User;
+import com.github.splitbuddy.enums.Role;
 import com.github.splitbuddy.exception.InvalidDataException;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -17,6 +19,20 @@ public class UserUtil {
         throw new InvalidDataException("No authenticated user found");
     }
 
+    /**
+     * Builds the principal of a request from the claims embedded in its access token. The user is not loaded, so only
+     * the id, email, full name, role and email verification are set.
+     */
+    public static User principalOf(VerifiedToken token) {
+        return User.builder()
+                .id(token.userId())
+                .email(token.subject())
+                .fullName(token.fullName())
+                .role(Role.valueOf(token.role()))
+                .isEmailVerified(token.emailVerified())
+                .build();
+    }
+
     public static String getCurrentUserEmail() {
         return getCurrentUser().getUsername();
     }
@@ -3,21 +3,26 @@ package com.github.splitbuddy.validation;
 import com.github.splitbuddy.dtos.ExpenseCreationRequest;
 import com.github.splitbuddy.exception.InvalidDataException;
 
+import static com.github.splitbuddy.utils.MoneyUtil.toMajorUnits;
+
 public class EqualShareValidationStrategy implements ExpenseValidationStrategy {
     @Override
     public void validate(ExpenseCreationRequest request) throws InvalidDataException {
-        double totalAmount = request.getShares().stream()
-                .mapToDouble(s -> s.amountOwed() == null ? 0 : s.amountOwed())
+        long totalAmount = request.getShares().stream()
+                .mapToLong(s -> s.amountOwed())
                 .sum();
 
-        if (Math.abs(totalAmount - request.getTotalAmount()) > 0.01) {
+        if (totalAmount != request.getTotalAmount()) {
             throw new InvalidDataException("Total amount must be equal to sum of shares");
         }
 
-        double equalShare = request.getTotalAmount() / request.getShares().size();
+        // the remainder of an uneven division is spread one minor unit at a time
+        long equalShare = request.getTotalAmount() / request.getShares().size();
+        boolean hasRemainder = request.getTotalAmount() % request.getShares().size() != 0;
         for (final var share : request.getShares()) {
-            if (Math.abs(share.amountOwed() - equalShare) > 0.01) {
-                throw new InvalidDataException("For equal split, all shares must be exactly " + equalShare);
+            if (share.amountOwed() != equalShare && !(hasRemainder && share.amountOwed() == equalShare + 1)) {
+                throw new InvalidDataException("For equal split, all shares must be exactly " + toMajorUnits(equalShare)
+                        + (hasRemainder ? " or " + toMajorUnits(equalShare + 1) : ""));
             }
             if (share.percentage() != null) {
                 throw new InvalidDataException("Percentage should not be provided for equal split");
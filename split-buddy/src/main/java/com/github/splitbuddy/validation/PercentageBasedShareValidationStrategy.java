@@ -14,11 +14,20 @@ public class PercentageBasedShareValidationStrategy implements ExpenseValidation
             throw new InvalidDataException("Percentages must add up to 100%");
         }
 
+        long sum = request.getShares().stream()
+                .mapToLong(s -> s.amountOwed())
+                .sum();
+
+        if (sum != request.getTotalAmount()) {
+            throw new InvalidDataException("Sum of shares must match total amount");
+        }
+
         for (final var share : request.getShares()) {
             if (share.percentage() == null || share.percentage() < 0) {
                 throw new InvalidDataException("Each share must have a positive percentage");
             }
-            if (Math.abs(share.percentage() * request.getTotalAmount() / 100 - share.amountOwed()) > 0.01) {
+            // a share may be off by one minor unit to absorb rounding, the exact sum check above keeps the total whole
+            if (Math.abs(share.percentage() * request.getTotalAmount() / 100 - share.amountOwed()) > 1) {
                 throw new InvalidDataException("Share amount must be equal to percentage * total amount / 100");
             }
         }
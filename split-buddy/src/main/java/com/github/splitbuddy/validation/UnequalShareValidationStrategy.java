@@ -6,11 +6,11 @@ import com.github.splitbuddy.exception.InvalidDataException;
 public class UnequalShareValidationStrategy implements ExpenseValidationStrategy {
     @Override
     public void validate(ExpenseCreationRequest request) throws InvalidDataException {
-        double sum = request.getShares().stream()
-                .mapToDouble(s -> s.amountOwed() == null ? 0 : s.amountOwed())
+        long sum = request.getShares().stream()
+                .mapToLong(s -> s.amountOwed())
                 .sum();
 
-        if (Math.abs(sum - request.getTotalAmount()) > 0.01) {
+        if (sum != request.getTotalAmount()) {
             throw new InvalidDataException("Sum of shares must match total amount");
         }
 
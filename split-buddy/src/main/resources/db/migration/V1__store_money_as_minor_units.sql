@@ -0,0 +1,38 @@
+-- Money moved from double precision major units to bigint minor units (cents). Each old column is converted in place
+-- into its new one, so existing amounts are kept and the NOT NULL constraint carries over. Databases created after
+-- the change never had the old columns and are left alone; Hibernate creates the tables there.
+CREATE FUNCTION pg_temp.convert_to_minor_units(p_table text, p_old_column text, p_new_column text) RETURNS void AS
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = p_table
+                     AND column_name = p_old_column) THEN
+        RETURN;
+    END IF;
+
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_schema = current_schema()
+                 AND table_name = p_table
+                 AND column_name = p_new_column) THEN
+        -- a schema update already added the new column next to the old one
+        EXECUTE format('UPDATE %I SET %I = round(%I * 100)::bigint WHERE %I IS NULL AND %I IS NOT NULL',
+                       p_table, p_new_column, p_old_column, p_new_column, p_old_column);
+        EXECUTE format('ALTER TABLE %I DROP COLUMN %I', p_table, p_old_column);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE bigint', p_table, p_new_column);
+    ELSE
+        EXECUTE format('ALTER TABLE %I RENAME COLUMN %I TO %I', p_table, p_old_column, p_new_column);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE bigint USING round(%I * 100)::bigint',
+                       p_table, p_new_column, p_new_column);
+    END IF;
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET NOT NULL', p_table, p_new_column);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT pg_temp.convert_to_minor_units('expenses', 'total_amount', 'total_amount_minor');
+SELECT pg_temp.convert_to_minor_units('expense_splits', 'amount_owed', 'amount_owed_minor');
+SELECT pg_temp.convert_to_minor_units('group_balances', 'net_balance', 'net_balance_minor');
+
+DROP FUNCTION pg_temp.convert_to_minor_units(text, text, text);
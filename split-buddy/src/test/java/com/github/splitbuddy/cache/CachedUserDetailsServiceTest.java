@@ -0,0 +1,133 @@
+package com.github.splitbuddy.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachedUserDetailsServiceTest {
+
+    private static final long TTL_MILLIS = 1_000;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final CountingUserDetailsService users = new CountingUserDetailsService();
+
+    @Test
+    void servesCachedPrincipalUntilItExpires() {
+        CachedUserDetailsService service = newService(10);
+
+        UserDetails first = service.loadUserByUsername("a@x.com");
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS) - 1);
+        assertThat(service.loadUserByUsername("a@x.com")).isSameAs(first);
+        assertThat(users.loads("a@x.com")).isEqualTo(1);
+
+        nanos.incrementAndGet();
+        assertThat(service.loadUserByUsername("a@x.com")).isNotSameAs(first);
+        assertThat(users.loads("a@x.com")).isEqualTo(2);
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedBeyondTheBound() {
+        CachedUserDetailsService service = newService(2);
+
+        service.loadUserByUsername("a@x.com");
+        service.loadUserByUsername("b@x.com");
+        service.loadUserByUsername("a@x.com");
+        service.loadUserByUsername("c@x.com");
+
+        assertThat(service.size()).isEqualTo(2);
+        service.loadUserByUsername("a@x.com");
+        service.loadUserByUsername("b@x.com");
+        assertThat(users.loads("a@x.com")).isEqualTo(1);
+        assertThat(users.loads("b@x.com")).isEqualTo(2);
+    }
+
+    @Test
+    void evictForcesReload() {
+        CachedUserDetailsService service = newService(10);
+
+        service.loadUserByUsername("a@x.com");
+        service.evict("a@x.com");
+        service.loadUserByUsername("a@x.com");
+
+        assertThat(users.loads("a@x.com")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheUnknownUsers() {
+        CachedUserDetailsService service = newService(10);
+
+        assertThatThrownBy(() -> service.loadUserByUsername("unknown@x.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> service.loadUserByUsername("unknown@x.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        assertThat(users.loads("unknown@x.com")).isEqualTo(2);
+        assertThat(service.size()).isZero();
+    }
+
+    @Test
+    void doesNotKeepLoadOverlappingAnEviction() throws Exception {
+        CachedUserDetailsService service = newService(10);
+        users.block = new CountDownLatch(1);
+
+        CompletableFuture<UserDetails> load = CompletableFuture.supplyAsync(
+                () -> service.loadUserByUsername("a@x.com"));
+        assertThat(users.loading.await(5, TimeUnit.SECONDS)).isTrue();
+        service.evict("a@x.com");
+        users.block.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        assertThat(service.size()).isZero();
+        users.block = null;
+        service.loadUserByUsername("a@x.com");
+        assertThat(users.loads("a@x.com")).isEqualTo(2);
+    }
+
+    private CachedUserDetailsService newService(int maxEntries) {
+        return new CachedUserDetailsService(users, new SimpleMeterRegistry(), maxEntries, TTL_MILLIS, nanos::get);
+    }
+
+    private static class CountingUserDetailsService implements UserDetailsService {
+
+        private final Map<String, AtomicLong> loadsByUsername = new ConcurrentHashMap<>();
+        private final CountDownLatch loading = new CountDownLatch(1);
+        private volatile CountDownLatch block;
+
+        @Override
+        public UserDetails loadUserByUsername(String username) {
+            loadsByUsername.computeIfAbsent(username, name -> new AtomicLong()).incrementAndGet();
+            CountDownLatch latch = block;
+            if (latch != null) {
+                loading.countDown();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (username.startsWith("unknown")) {
+                throw new UsernameNotFoundException(username);
+            }
+            return User.withUsername(username).password("secret").authorities(List.of()).build();
+        }
+
+        long loads(String username) {
+            AtomicLong loads = loadsByUsername.get(username);
+            return loads == null ? 0 : loads.get();
+        }
+    }
+}
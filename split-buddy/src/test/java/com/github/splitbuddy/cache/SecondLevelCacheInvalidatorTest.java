@@ -0,0 +1,155 @@
+package com.github.splitbuddy.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dtos.CacheInvalidationMessage;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupMember;
+import com.github.splitbuddy.entity.GroupMemberId;
+import com.github.splitbuddy.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SecondLevelCacheInvalidatorTest {
+
+    private static final String CHANNEL = "l2";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+    private final CacheImplementor publisherCache = mock(CacheImplementor.class);
+    private final CacheImplementor receiverCache = mock(CacheImplementor.class);
+    private final SecondLevelCacheInvalidator publisher = invalidator(publisherCache);
+    private final SecondLevelCacheInvalidator receiver = invalidator(receiverCache);
+
+    @Test
+    void updateOnOneNodeEvictsTheEntityAndItsQueriesOnAnother() throws Exception {
+        publisher.onPostUpdate(updateOf(User.class, CacheRegions.USERS, "user-1"));
+
+        receiver.onMessage(message(published()), null);
+
+        verify(receiverCache).evictEntityData(User.class.getName(), "user-1");
+        verify(receiverCache).evictQueryRegion(CacheRegions.USER_QUERIES);
+        assertThat(counter("received")).isEqualTo(1);
+    }
+
+    @Test
+    void membershipChangeEvictsOnlyThatMembership() throws Exception {
+        Group group = new Group();
+        group.setId("group-1");
+        GroupMemberId memberId = new GroupMemberId();
+        memberId.setGroup(group);
+        memberId.setMemberEmail("a@x.com");
+        publisher.onPostUpdate(updateOf(GroupMember.class, CacheRegions.GROUP_MEMBERS, memberId));
+
+        receiver.onMessage(message(published()), null);
+
+        ArgumentCaptor<Object> evictedKey = ArgumentCaptor.forClass(Object.class);
+        verify(receiverCache).evictEntityData(eq(GroupMember.class.getName()), evictedKey.capture());
+        assertThat(evictedKey.getValue()).isEqualTo(memberId);
+        verify(receiverCache).evictQueryRegion(CacheRegions.GROUP_MEMBER_QUERIES);
+    }
+
+    @Test
+    void regionWithoutQueryCacheOnlyEvictsTheEntity() throws Exception {
+        receiver.onMessage(message(objectMapper.writeValueAsString(new CacheInvalidationMessage("other-node",
+                Group.class.getName(), CacheRegions.GROUPS, "group-1", null))), null);
+
+        verify(receiverCache).evictEntityData(Group.class.getName(), "group-1");
+        verify(receiverCache, never()).evictQueryRegion(anyString());
+    }
+
+    @Test
+    void messageWithoutIdEvictsTheWholeRegion() throws Exception {
+        receiver.onMessage(message(objectMapper.writeValueAsString(new CacheInvalidationMessage("other-node",
+                User.class.getName(), CacheRegions.USERS, null, null))), null);
+
+        verify(receiverCache).evictEntityData(User.class.getName());
+    }
+
+    @Test
+    void nodeIgnoresItsOwnMessages() {
+        publisher.onPostUpdate(updateOf(User.class, CacheRegions.USERS, "user-1"));
+
+        publisher.onMessage(message(published()), null);
+
+        verifyNoInteractions(publisherCache);
+    }
+
+    @Test
+    void unreadableMessageIsCountedAndIgnored() {
+        receiver.onMessage(message("not json"), null);
+
+        verifyNoInteractions(receiverCache);
+        assertThat(counter("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void failedPublishIsCountedAndDoesNotEscape() {
+        doThrow(new IllegalStateException("redis down")).when(redisTemplate).convertAndSend(anyString(), any());
+
+        publisher.onPostUpdate(updateOf(User.class, CacheRegions.USERS, "user-1"));
+
+        assertThat(counter("failed")).isEqualTo(1);
+        assertThat(counter("published")).isZero();
+    }
+
+    private SecondLevelCacheInvalidator invalidator(CacheImplementor cache) {
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        return new SecondLevelCacheInvalidator(entityManagerFactory, redisTemplate,
+                mock(RedisMessageListenerContainer.class), objectMapper, meterRegistry, CHANNEL);
+    }
+
+    private static PostUpdateEvent updateOf(Class<?> entityClass, String region, Object id) {
+        EntityPersister persister = mock(EntityPersister.class, RETURNS_DEEP_STUBS);
+        when(persister.canWriteToCache()).thenReturn(true);
+        when(persister.getEntityName()).thenReturn(entityClass.getName());
+        when(persister.getCacheAccessStrategy().getRegion().getName()).thenReturn(region);
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(id);
+        return event;
+    }
+
+    private String published() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), payload.capture());
+        return (String) payload.getValue();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double counter(String direction) {
+        return meterRegistry.counter("hibernate.cache.invalidations", "direction", direction).count();
+    }
+}
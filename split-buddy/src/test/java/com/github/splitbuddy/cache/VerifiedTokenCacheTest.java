@@ -0,0 +1,65 @@
+package com.github.splitbuddy.cache;
+
+import com.github.splitbuddy.dtos.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void returnsCachedTokenUntilItExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 10);
+        VerifiedToken token = tokenExpiringIn(60_000);
+
+        cache.put("hash", token);
+
+        assertThat(cache.get("hash")).isSameAs(token);
+        assertThat(cache.get("other")).isNull();
+    }
+
+    @Test
+    void dropsExpiredTokenOnRead() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 10);
+
+        cache.put("hash", tokenExpiringIn(-1_000));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("hash")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedBeyondTheBound() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 2);
+
+        cache.put("a", tokenExpiringIn(60_000));
+        cache.put("b", tokenExpiringIn(60_000));
+        cache.get("a");
+        cache.put("c", tokenExpiringIn(60_000));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    void doesNotCacheTokensWithoutExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 10);
+
+        cache.put("hash", new VerifiedToken("a@x.com", VerifiedToken.ACCESS, new Date(), null, null, null, null, null));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("hash")).isNull();
+    }
+
+    private static VerifiedToken tokenExpiringIn(long millis) {
+        Date now = new Date();
+        return new VerifiedToken("a@x.com", VerifiedToken.ACCESS, now, new Date(now.getTime() + millis), null, null,
+                null, null);
+    }
+}
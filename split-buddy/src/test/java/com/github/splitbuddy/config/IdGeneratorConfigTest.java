@@ -0,0 +1,38 @@
+package com.github.splitbuddy.config;
+
+import com.github.splitbuddy.enums.IdGeneratorType;
+import com.github.splitbuddy.id.SnowflakeIdGenerator;
+import com.github.splitbuddy.id.UuidV7IdGenerator;
+import com.github.splitbuddy.utils.SplitUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdGeneratorConfigTest {
+
+    private final IdGeneratorConfig config = new IdGeneratorConfig();
+
+    @AfterEach
+    void restoreDefaultGenerator() {
+        SplitUtil.setIdGenerator(new UuidV7IdGenerator());
+    }
+
+    @Test
+    void snowflakeRequiresANodeId() {
+        assertThatThrownBy(() -> config.idGenerator(IdGeneratorType.SNOWFLAKE, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("id.generator.node-id");
+    }
+
+    @Test
+    void snowflakeUsesTheConfiguredNodeId() {
+        assertThat(config.idGenerator(IdGeneratorType.SNOWFLAKE, 7)).isInstanceOf(SnowflakeIdGenerator.class);
+    }
+
+    @Test
+    void uuidV7NeedsNoNodeId() {
+        assertThat(config.idGenerator(IdGeneratorType.UUID_V7, null)).isInstanceOf(UuidV7IdGenerator.class);
+    }
+}
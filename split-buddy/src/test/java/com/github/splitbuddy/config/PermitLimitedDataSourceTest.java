@@ -0,0 +1,119 @@
+package com.github.splitbuddy.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PermitLimitedDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource target = mock(DataSource.class);
+    private final PermitLimitedDataSource dataSource = new PermitLimitedDataSource(target, meterRegistry, 1, 50);
+
+    @Test
+    void closingAConnectionHandsThePermitToTheNextCaller() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        Connection first = dataSource.getConnection();
+        assertThat(availablePermits()).isZero();
+        first.close();
+
+        assertThat(availablePermits()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void callerBeyondThePermitsTimesOut() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(1)).getConnection();
+        assertThat(meterRegistry.timer("db.permits.wait").count()).isEqualTo(2);
+    }
+
+    @Test
+    void closingTwiceReturnsThePermitOnce() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection borrowed = dataSource.getConnection();
+        borrowed.close();
+        borrowed.close();
+
+        assertThat(availablePermits()).isEqualTo(1);
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void permitIsReturnedWhenTheTargetFailsToConnect() throws SQLException {
+        when(target.getConnection())
+                .thenThrow(new SQLException("connection refused"))
+                .thenThrow(new IllegalStateException("pool closed"))
+                .thenAnswer(invocation -> mock(Connection.class));
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class)
+                .hasMessage("connection refused");
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(IllegalStateException.class);
+
+        assertThat(availablePermits()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void permitIsReturnedWhenClosingTheTargetFails() throws SQLException {
+        Connection connection = mock(Connection.class);
+        doThrow(new SQLException("broken pipe")).when(connection).close();
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection borrowed = dataSource.getConnection();
+
+        assertThatThrownBy(borrowed::close).isInstanceOf(SQLException.class);
+        assertThat(availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void otherCallsReachTheTargetConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        doThrow(new SQLException("read only")).when(connection).setReadOnly(true);
+        when(target.getConnection("user", "secret")).thenReturn(connection);
+
+        Connection borrowed = dataSource.getConnection("user", "secret");
+
+        assertThat(borrowed.getAutoCommit()).isTrue();
+        assertThatThrownBy(() -> borrowed.setReadOnly(true)).isInstanceOf(SQLException.class)
+                .hasMessage("read only");
+        assertThat(borrowed).isEqualTo(borrowed).isNotEqualTo(connection);
+    }
+
+    @Test
+    void interruptedCallerGivesUpAndKeepsItsInterrupt() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(availablePermits()).isEqualTo(1);
+    }
+
+    private double availablePermits() {
+        return meterRegistry.get("db.permits.available").gauge().value();
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.splitbuddy.controller;
+
+import com.github.splitbuddy.dtos.GroupExpenseDTO;
+import com.github.splitbuddy.dtos.GroupExpenseSummary;
+import com.github.splitbuddy.entity.User;
+import com.github.splitbuddy.service.GroupSummaryService;
+import com.github.splitbuddy.service.SplitService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SplitControllerTest {
+
+    private static final String EMAIL = "a@x.com";
+    private static final String GROUP_ID = "group-1";
+    private static final String ETAG = "\"0123456789abcdef0123456789abcdef\"";
+
+    private final SplitService splitService = mock(SplitService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new SplitController(splitService, mock(GroupSummaryService.class)))
+                .build();
+        User user = User.builder().id("user-a").email(EMAIL).fullName("A").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        when(splitService.getGroupInformationETag(EMAIL, GROUP_ID)).thenReturn(ETAG);
+        when(splitService.getAllGroupSummaryETag(EMAIL)).thenReturn(ETAG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void groupReadWithoutValidatorReturnsBodyAndETag() throws Exception {
+        GroupExpenseDTO group = new GroupExpenseDTO();
+        group.setId(GROUP_ID);
+        when(splitService.getGroupInformation(EMAIL, GROUP_ID)).thenReturn(group);
+
+        mockMvc.perform(get("/api/v1/split/group/{groupId}", GROUP_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.id").value(GROUP_ID));
+    }
+
+    @Test
+    void groupReadWithMatchingValidatorIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/split/group/{groupId}", GROUP_ID).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+
+        verify(splitService, never()).getGroupInformation(anyString(), anyString());
+    }
+
+    @Test
+    void groupReadWithStaleValidatorReturnsTheNewBody() throws Exception {
+        when(splitService.getGroupInformation(EMAIL, GROUP_ID)).thenReturn(new GroupExpenseDTO());
+
+        mockMvc.perform(get("/api/v1/split/group/{groupId}", GROUP_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"ffffffffffffffffffffffffffffffff\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+
+        verify(splitService).getGroupInformation(EMAIL, GROUP_ID);
+    }
+
+    @Test
+    void summaryWithMatchingValidatorIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/split/group/all-groups").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified());
+
+        verify(splitService, never()).fetchAllGroupSummary(anyString());
+    }
+
+    @Test
+    void summaryWithoutValidatorReturnsBodyAndETag() throws Exception {
+        when(splitService.fetchAllGroupSummary(EMAIL)).thenReturn(new GroupExpenseSummary());
+
+        mockMvc.perform(get("/api/v1/split/group/all-groups"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+}
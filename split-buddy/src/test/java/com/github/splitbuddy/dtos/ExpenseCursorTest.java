@@ -0,0 +1,56 @@
+package com.github.splitbuddy.dtos;
+
+import com.github.splitbuddy.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        ExpenseCursor cursor = new ExpenseCursor(new Date(1760000000123L), "0192f3c4a1b27000a1b2c3d4e5f60718");
+
+        assertThat(ExpenseCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesAsUrlSafeTokenWithoutPadding() {
+        String encoded = new ExpenseCursor(new Date(1), "id?>~").encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void keepsSeparatorsInsideTheId() {
+        ExpenseCursor cursor = new ExpenseCursor(new Date(42), "legacy:id");
+
+        assertThat(ExpenseCursor.decode(cursor.encode()).id()).isEqualTo("legacy:id");
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThatThrownBy(() -> ExpenseCursor.decode("not a cursor!")).isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsTokensWithoutSeparator() {
+        assertThatThrownBy(() -> ExpenseCursor.decode(encode("1760000000123"))).isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void rejectsTokensWithoutNumericTimestamp() {
+        assertThatThrownBy(() -> ExpenseCursor.decode(encode("yesterday:abc"))).isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> ExpenseCursor.decode(encode(":abc"))).isInstanceOf(InvalidDataException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
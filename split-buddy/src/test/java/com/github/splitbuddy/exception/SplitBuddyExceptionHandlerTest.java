@@ -0,0 +1,58 @@
+package com.github.splitbuddy.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SplitBuddyExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new SplitBuddyExceptionHandler())
+            .build();
+
+    @Test
+    void overloadedServiceAnswersServiceUnavailable() throws Exception {
+        mockMvc.perform(get("/overloaded"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.detail").value("Too many requests"));
+    }
+
+    @Test
+    void invalidDataAnswersBadRequest() throws Exception {
+        mockMvc.perform(get("/invalid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Bad input"));
+    }
+
+    @Test
+    void unknownFailureAnswersInternalServerError() throws Exception {
+        mockMvc.perform(get("/unknown"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/overloaded")
+        void overloaded() {
+            throw new ServiceOverloadedException("Too many requests");
+        }
+
+        @GetMapping("/invalid")
+        void invalid() {
+            throw new InvalidDataException("Bad input");
+        }
+
+        @GetMapping("/unknown")
+        void unknown() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
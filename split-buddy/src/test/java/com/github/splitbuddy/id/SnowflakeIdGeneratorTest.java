@@ -0,0 +1,64 @@
+package com.github.splitbuddy.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.splitbuddy.id.UuidV7IdGeneratorTest.assertIncreasing;
+import static com.github.splitbuddy.id.UuidV7IdGeneratorTest.generate;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    void packsMillisNodeAndSequenceIntoSixteenHexDigits() {
+        long id = Long.parseUnsignedLong(new SnowflakeIdGenerator(5, () -> NOW).nextId(), 16);
+
+        assertThat(id >>> 22).isEqualTo(1_000_000L);
+        assertThat((id >>> 12) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(5);
+        assertThat(id & 0xFFF).isZero();
+    }
+
+    @Test
+    void padsIdsCloseToTheEpoch() {
+        String id = new SnowflakeIdGenerator(0, () -> SnowflakeIdGenerator.EPOCH_MILLIS).nextId();
+
+        assertThat(id).isEqualTo("0".repeat(15) + "1");
+    }
+
+    @Test
+    void sequenceOverflowBorrowsTheNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+        List<String> ids = generate(generator, 4097);
+
+        assertIncreasing(ids);
+        long last = Long.parseUnsignedLong(ids.get(4096), 16);
+        assertThat(last >>> 22).isEqualTo(1_000_001L);
+        assertThat(last & 0xFFF).isZero();
+    }
+
+    @Test
+    void clockSteppingBackNeverProducesASmallerId() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        String beforeStep = generator.nextId();
+
+        clock.set(NOW - 60_000);
+        String afterStep = generator.nextId();
+        clock.set(NOW + 1);
+        String afterRecovery = generator.nextId();
+
+        assertIncreasing(List.of(beforeStep, afterStep, afterRecovery));
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.splitbuddy.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7IdGeneratorTest {
+
+    private static final long NOW = 1760000000000L;
+
+    @Test
+    void rendersVersionSevenUuidsAsThirtyTwoHexDigits() {
+        String id = new UuidV7IdGenerator(() -> NOW).nextId();
+
+        assertThat(id).matches("[0-9a-f]{32}");
+        UUID uuid = UUID.fromString(id.replaceFirst("(.{8})(.{4})(.{4})(.{4})(.{12})", "$1-$2-$3-$4-$5"));
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(NOW);
+    }
+
+    @Test
+    void idsFromTheSameMillisecondStayOrdered() {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(() -> NOW);
+
+        assertIncreasing(generate(generator, 10_000));
+    }
+
+    @Test
+    void clockSteppingBackNeverProducesASmallerId() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(clock::get);
+        String beforeStep = generator.nextId();
+
+        clock.set(NOW - 60_000);
+        String afterStep = generator.nextId();
+
+        assertThat(afterStep).isGreaterThan(beforeStep);
+        assertThat(afterStep.substring(0, 12)).isEqualTo(beforeStep.substring(0, 12));
+    }
+
+    @Test
+    void idsFromConcurrentThreadsAreUnique() throws Exception {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(80_000);
+    }
+
+    static List<String> generate(IdGenerator generator, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(generator.nextId());
+        }
+        return ids;
+    }
+
+    static void assertIncreasing(List<String> ids) {
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+        }
+    }
+}
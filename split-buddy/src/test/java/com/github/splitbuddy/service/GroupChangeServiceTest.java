@@ -0,0 +1,71 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.GroupChangeRepository;
+import com.github.splitbuddy.dao.GroupRepository;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupChange;
+import com.github.splitbuddy.enums.GroupChangeType;
+import com.github.splitbuddy.exception.InvalidDataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupChangeServiceTest {
+
+    private static final String GROUP_ID = "group-1";
+
+    private final GroupRepository groupRepository = mock(GroupRepository.class);
+    private final GroupChangeRepository groupChangeRepository = mock(GroupChangeRepository.class);
+    private final GroupChangeService groupChangeService = new GroupChangeService(groupRepository, groupChangeRepository);
+    private final Group group = new Group();
+
+    @BeforeEach
+    void setUp() {
+        group.setId(GROUP_ID);
+        when(groupRepository.findByIdForUpdate(GROUP_ID)).thenReturn(Optional.of(group));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logsEveryChangeUnderTheBumpedVersion() {
+        group.setVersion(4L);
+
+        long sequence = groupChangeService.recordChanges(GROUP_ID, GroupChangeType.EXPENSE_ADDED,
+                List.of("expense-1", "expense-2"));
+
+        assertThat(sequence).isEqualTo(5);
+        assertThat(group.getVersion()).isEqualTo(5);
+        ArgumentCaptor<List<GroupChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(groupChangeRepository).saveAll(changes.capture());
+        assertThat(changes.getValue())
+                .extracting(GroupChange::getSequence, GroupChange::getEntityId, GroupChange::getChangeType)
+                .containsExactly(
+                        tuple(5L, "expense-1", GroupChangeType.EXPENSE_ADDED),
+                        tuple(5L, "expense-2", GroupChangeType.EXPENSE_ADDED));
+    }
+
+    @Test
+    void versionOfAGroupWithoutOneStartsAtOne() {
+        assertThat(groupChangeService.incrementVersion(GROUP_ID)).isEqualTo(1);
+        assertThat(groupChangeService.incrementVersion(GROUP_ID)).isEqualTo(2);
+        verify(groupChangeRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void unknownGroupIsRejected() {
+        assertThatThrownBy(() -> groupChangeService.incrementVersion("unknown"))
+                .isInstanceOf(InvalidDataException.class);
+    }
+}
@@ -0,0 +1,183 @@
+package com.github.splitbuddy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dao.GroupMemberRepository;
+import com.github.splitbuddy.dtos.GroupMemberView;
+import com.github.splitbuddy.dtos.MembershipInvalidationMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupMembershipIndexTest {
+
+    private static final String GROUP_ID = "group-1";
+    private static final String OTHER_GROUP_ID = "group-2";
+    private static final String CHANNEL = "membership";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GroupMemberRepository groupMemberRepository = mock(GroupMemberRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+    private final GroupMembershipIndex index = index(300_000);
+
+    @Test
+    void loadedGroupIsServedFromMemory() {
+        givenMembers(GROUP_ID, new GroupMemberView(GROUP_ID, "a@x.com", true, true),
+                new GroupMemberView(GROUP_ID, "b@x.com", false, false));
+
+        assertThat(index.isActiveAdmin(GROUP_ID, "a@x.com")).isTrue();
+        assertThat(index.isActiveMember(GROUP_ID, "b@x.com")).isFalse();
+        assertThat(index.getActiveMemberEmails(GROUP_ID)).containsExactly("a@x.com");
+
+        verify(groupMemberRepository, times(1)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    @Test
+    void memberChangesUpdateTheLoadedGroupAndTellOtherNodes() {
+        givenMembers(GROUP_ID, new GroupMemberView(GROUP_ID, "a@x.com", true, true));
+        index.isActiveMember(GROUP_ID, "a@x.com");
+
+        index.memberAdded(GROUP_ID, "b@x.com", false);
+        index.memberRemoved(GROUP_ID, "a@x.com", true);
+
+        assertThat(index.isActiveMember(GROUP_ID, "b@x.com")).isTrue();
+        assertThat(index.isActiveMember(GROUP_ID, "a@x.com")).isFalse();
+        verify(groupMemberRepository, times(1)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+        verify(redisTemplate, times(2)).convertAndSend(eq(CHANNEL), any());
+    }
+
+    @Test
+    void invalidationFromAnotherNodeDropsTheGroup() {
+        givenMembers(GROUP_ID, new GroupMemberView(GROUP_ID, "a@x.com", false, true));
+        index.isActiveMember(GROUP_ID, "a@x.com");
+
+        index.onMessage(message(messageOf("other-node", GROUP_ID)), null);
+        index.isActiveMember(GROUP_ID, "a@x.com");
+
+        verify(groupMemberRepository, times(2)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    @Test
+    void ownInvalidationIsIgnored() {
+        givenMembers(GROUP_ID, new GroupMemberView(GROUP_ID, "a@x.com", false, true));
+        index.isActiveMember(GROUP_ID, "a@x.com");
+        index.memberAdded(GROUP_ID, "b@x.com", false);
+
+        index.onMessage(message(messageOf(publishedNodeId(), GROUP_ID)), null);
+        index.isActiveMember(GROUP_ID, "b@x.com");
+
+        verify(groupMemberRepository, times(1)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    @Test
+    void loadOverlappingAnUpdateOfItsGroupIsNotKept() {
+        when(groupMemberRepository.findAllViewsByGroupIdIn(List.of(GROUP_ID))).thenAnswer(invocation -> {
+            // the rows were read before this update committed
+            index.memberAdded(GROUP_ID, "b@x.com", false);
+            return List.of(new GroupMemberView(GROUP_ID, "a@x.com", false, true));
+        });
+
+        index.isActiveMember(GROUP_ID, "a@x.com");
+        index.isActiveMember(GROUP_ID, "a@x.com");
+
+        verify(groupMemberRepository, times(2)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    @Test
+    void loadOverlappingAnUpdateOfAnotherGroupIsKept() {
+        when(groupMemberRepository.findAllViewsByGroupIdIn(List.of(GROUP_ID))).thenAnswer(invocation -> {
+            index.memberAdded(OTHER_GROUP_ID, "c@x.com", false);
+            index.onMessage(message(messageOf("other-node", OTHER_GROUP_ID)), null);
+            return List.of(new GroupMemberView(GROUP_ID, "a@x.com", false, true));
+        });
+
+        index.isActiveMember(GROUP_ID, "a@x.com");
+        index.isActiveMember(GROUP_ID, "a@x.com");
+
+        verify(groupMemberRepository, times(1)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    @Test
+    void failedLoadLeavesNothingBehind() {
+        when(groupMemberRepository.findAllViewsByGroupIdIn(List.of(GROUP_ID)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(new GroupMemberView(GROUP_ID, "a@x.com", false, true)));
+
+        assertThatThrownBy(() -> index.isActiveMember(GROUP_ID, "a@x.com"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(index.isActiveMember(GROUP_ID, "a@x.com")).isTrue();
+        assertThat(index.isActiveMember(GROUP_ID, "a@x.com")).isTrue();
+
+        verify(groupMemberRepository, times(2)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    @Test
+    void unknownGroupIsNotKept() {
+        assertThat(index.isActiveMember("missing", "a@x.com")).isFalse();
+        assertThat(index.isActiveMember("missing", "a@x.com")).isFalse();
+
+        assertThat(index.size()).isZero();
+        verify(groupMemberRepository, times(2)).findAllViewsByGroupIdIn(List.of("missing"));
+    }
+
+    @Test
+    void expiredGroupIsReloaded() {
+        GroupMembershipIndex expiring = index(0);
+        givenMembers(GROUP_ID, new GroupMemberView(GROUP_ID, "a@x.com", false, true));
+
+        expiring.isActiveMember(GROUP_ID, "a@x.com");
+        expiring.isActiveMember(GROUP_ID, "a@x.com");
+
+        verify(groupMemberRepository, times(2)).findAllViewsByGroupIdIn(List.of(GROUP_ID));
+    }
+
+    private GroupMembershipIndex index(long ttlMillis) {
+        return new GroupMembershipIndex(groupMemberRepository, redisTemplate,
+                mock(RedisMessageListenerContainer.class), objectMapper, new SimpleMeterRegistry(), CHANNEL, 100,
+                ttlMillis);
+    }
+
+    private void givenMembers(String groupId, GroupMemberView... members) {
+        when(groupMemberRepository.findAllViewsByGroupIdIn(List.of(groupId))).thenReturn(List.of(members));
+    }
+
+    private String publishedNodeId() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(CHANNEL), payload.capture());
+        try {
+            return objectMapper.readValue((String) payload.getValue(), MembershipInvalidationMessage.class).nodeId();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String messageOf(String nodeId, String groupId) {
+        try {
+            return objectMapper.writeValueAsString(new MembershipInvalidationMessage(nodeId, groupId));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
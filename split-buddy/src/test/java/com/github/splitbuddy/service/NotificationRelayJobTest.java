@@ -0,0 +1,27 @@
+package com.github.splitbuddy.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class NotificationRelayJobTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+
+    @Test
+    void claimMustOutlastTheSendBudgetAndABlockedSend() {
+        assertThatThrownBy(() -> new NotificationRelayJob(notificationService, 500, 10_000, 60_000, 60_000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("kafka.producer.max-block-ms");
+        assertThatThrownBy(() -> new NotificationRelayJob(notificationService, 500, 10_000, 15_000, 5_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void acceptsAClaimLongerThanBoth() {
+        assertThatCode(() -> new NotificationRelayJob(notificationService, 500, 10_000, 60_000, 5_000))
+                .doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.splitbuddy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dao.NotificationOutboxRepository;
+import com.github.splitbuddy.dtos.NotificationMessage;
+import com.github.splitbuddy.entity.NotificationOutboxEntry;
+import com.github.splitbuddy.enums.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NotificationOutboxRepository repository = mock(NotificationOutboxRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, NotificationMessage> kafkaTemplate = mock(KafkaTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final NotificationService service = new NotificationService(kafkaTemplate, repository,
+            new ObjectMapper(), transactionManager, MAX_ATTEMPTS, 1_000, 60_000);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void numbersEntriesOfEachRecipientAfterThoseLeftInTheOutboxOnCommit() {
+        AtomicLong ids = new AtomicLong();
+        List<NotificationOutboxEntry> saved = new ArrayList<>();
+        when(repository.save(any(NotificationOutboxEntry.class))).thenAnswer(invocation -> {
+            NotificationOutboxEntry entry = invocation.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            saved.add(entry);
+            return entry;
+        });
+        when(repository.findMaxRecipientSequence("a@x.com")).thenReturn(4L);
+        when(repository.findMaxRecipientSequence("b@x.com")).thenReturn(null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.notifyUser(NotificationType.EXPENSE_ADDED, "b@x.com", "b");
+        service.notifyUser(NotificationType.EXPENSE_ADDED, "a@x.com", "a");
+        service.notifyUser(NotificationType.EXPENSE_ADDED, "a@x.com", "a");
+        assertThat(saved).allMatch(entry -> entry.getRecipientSequence() == null);
+
+        commit();
+
+        assertThat(saved).extracting(NotificationOutboxEntry::getRecipientSequence).containsExactly(1L, 5L, 5L);
+        // every transaction takes the recipient locks in lock key order
+        InOrder locks = inOrder(repository);
+        Stream.of("a@x.com", "b@x.com").map(String::hashCode).sorted().forEach(lockKey ->
+                locks.verify(repository).acquireRecipientLock(anyInt(), eq(lockKey)));
+        assertThat(TransactionSynchronizationManager.getResource(service)).isNull();
+    }
+
+    @Test
+    void failedSendHoldsBackOnlyItsRecipient() {
+        givenClaimed(entry(1L, "a@x.com"), entry(2L, "b@x.com"), entry(3L, "a@x.com"), entry(4L, "c@x.com"));
+        when(kafkaTemplate.send(anyString(), anyString(), any(NotificationMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(anyString(), eq("a@x.com"), any(NotificationMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("partition offline")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(service.relayPending(10, 1_000, 5_000)).isEqualTo(2);
+
+        verify(repository).claim(eq(List.of(1L, 2L, 3L, 4L)), any(Date.class));
+        verify(repository).deleteAllByIdInBatch(List.of(2L, 4L));
+        verify(repository).releaseFailed(eq(List.of(1L)), any(Date.class));
+        // acknowledged, but sent again behind the failed entry so the recipient keeps its order
+        verify(repository).release(List.of(3L));
+    }
+
+    @Test
+    void retryIsPostponedByABackoffDoublingPerAttempt() {
+        NotificationOutboxEntry entry = entry(1L, "a@x.com");
+        entry.setFailedAttempts(1);
+        givenClaimed(entry);
+        when(kafkaTemplate.send(anyString(), anyString(), any(NotificationMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        long before = System.currentTimeMillis();
+        assertThat(service.relayPending(10, 1_000, 5_000)).isZero();
+
+        ArgumentCaptor<Date> retryAt = ArgumentCaptor.forClass(Date.class);
+        verify(repository).releaseFailed(eq(List.of(1L)), retryAt.capture());
+        assertThat(retryAt.getValue().getTime()).isBetween(before + 2_000, System.currentTimeMillis() + 2_000);
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void entryIsDroppedOnceItRunsOutOfAttempts() {
+        NotificationOutboxEntry entry = entry(1L, "a@x.com");
+        entry.setFailedAttempts(MAX_ATTEMPTS - 1);
+        givenClaimed(entry, entry(2L, "a@x.com"));
+        when(kafkaTemplate.send(anyString(), anyString(), any(NotificationMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+
+        service.relayPending(10, 1_000, 5_000);
+
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(repository).release(List.of(2L));
+        verify(repository, never()).releaseFailed(any(), any());
+    }
+
+    @Test
+    void unacknowledgedSendCountsAsFailedOnceTheBudgetRunsOut() {
+        givenClaimed(entry(1L, "a@x.com"), entry(2L, "b@x.com"));
+        when(kafkaTemplate.send(anyString(), eq("a@x.com"), any(NotificationMessage.class)))
+                .thenReturn(new CompletableFuture<>());
+        when(kafkaTemplate.send(anyString(), eq("b@x.com"), any(NotificationMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(service.relayPending(10, 50, 5_000)).isEqualTo(1);
+
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+        verify(repository).releaseFailed(eq(List.of(1L)), any(Date.class));
+    }
+
+    @Test
+    void entriesLeftUnsentWhenTheBudgetIsSpentAreReleasedWithoutAnAttempt() {
+        givenClaimed(entry(1L, "a@x.com"), entry(2L, "b@x.com"));
+
+        assertThat(service.relayPending(10, 0, 5_000)).isZero();
+
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any(NotificationMessage.class));
+        verify(repository).release(List.of(1L, 2L));
+        verify(repository, never()).releaseFailed(any(), any());
+    }
+
+    @Test
+    void acknowledgedBatchIsDeleted() {
+        givenClaimed(entry(1L, "a@x.com"), entry(2L, "a@x.com"));
+        when(kafkaTemplate.send(anyString(), anyString(), any(NotificationMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(service.relayPending(10, 1_000, 5_000)).isEqualTo(2);
+
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository, never()).release(any());
+        verify(repository, never()).releaseFailed(any(), any());
+    }
+
+    @Test
+    void relaysNothingWhileAnotherNodeClaims() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.tryAcquireRelayLock(any(Long.class))).thenReturn(false);
+
+        assertThat(service.relayPending(10, 1_000, 5_000)).isZero();
+
+        verify(repository, never()).findClaimable(any(Date.class), anyInt());
+    }
+
+    private static void commit() {
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void givenClaimed(NotificationOutboxEntry... entries) {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.tryAcquireRelayLock(any(Long.class))).thenReturn(true);
+        when(repository.findClaimable(any(Date.class), eq(10))).thenReturn(List.of(entries));
+    }
+
+    private static NotificationOutboxEntry entry(long id, String recipient) {
+        return NotificationOutboxEntry.builder()
+                .id(id)
+                .recipient(recipient)
+                .type(NotificationType.EXPENSE_ADDED)
+                .args("[\"a\"]")
+                .build();
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dao.ExpenseRepository;
+import com.github.splitbuddy.dao.ExpenseSplitRepository;
+import com.github.splitbuddy.dao.GroupBalanceRepository;
+import com.github.splitbuddy.dao.GroupChangeRepository;
+import com.github.splitbuddy.dao.GroupMemberRepository;
+import com.github.splitbuddy.dao.GroupRepository;
+import com.github.splitbuddy.dtos.BulkExpenseCreationRequest;
+import com.github.splitbuddy.dtos.ExpenseCreationRequest;
+import com.github.splitbuddy.dtos.ExpenseDTO;
+import com.github.splitbuddy.dtos.ExpenseSplitView;
+import com.github.splitbuddy.dtos.ExpenseView;
+import com.github.splitbuddy.dtos.GroupMemberDTO;
+import com.github.splitbuddy.dtos.GroupMemberView;
+import com.github.splitbuddy.dtos.GroupSyncResponse;
+import com.github.splitbuddy.dtos.GroupVersion;
+import com.github.splitbuddy.dtos.IndividualShare;
+import com.github.splitbuddy.entity.Expense;
+import com.github.splitbuddy.entity.ExpenseSplit;
+import com.github.splitbuddy.entity.Group;
+import com.github.splitbuddy.entity.GroupChange;
+import com.github.splitbuddy.entity.User;
+import com.github.splitbuddy.enums.GroupChangeType;
+import com.github.splitbuddy.enums.SplitType;
+import com.github.splitbuddy.exception.InvalidDataException;
+import com.github.splitbuddy.settlement.SettlementPlanCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SplitServiceTest {
+
+    private static final String GROUP_ID = "group-1";
+
+    private final GroupRepository groupRepository = mock(GroupRepository.class);
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final ExpenseSplitRepository expenseSplitRepository = mock(ExpenseSplitRepository.class);
+    private final GroupBalanceRepository groupBalanceRepository = mock(GroupBalanceRepository.class);
+    private final BalanceSnapshotService balanceSnapshotService = mock(BalanceSnapshotService.class);
+    private final GroupMembershipIndex groupMembershipIndex = mock(GroupMembershipIndex.class);
+    private final GroupMemberRepository groupMemberRepository = mock(GroupMemberRepository.class);
+    private final GroupChangeRepository groupChangeRepository = mock(GroupChangeRepository.class);
+
+    // rows written so far, which the ledger rebuild sees because its queries flush them first
+    private final List<Expense> savedExpenses = new ArrayList<>();
+    private final List<ExpenseSplit> savedSplits = new ArrayList<>();
+    private final Map<String, Long> ledger = new HashMap<>();
+
+    private BalanceLedgerService balanceLedgerService;
+    private SplitService splitService;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        group = new Group();
+        group.setId(GROUP_ID);
+        group.setName("Trip");
+        group.setDeleted(false);
+        group.setVersion(0L);
+        // created before the ledger existed
+        group.setBalancesInitialized(false);
+        when(groupRepository.findById(GROUP_ID)).thenReturn(Optional.of(group));
+        when(groupRepository.findByIdForUpdate(GROUP_ID)).thenReturn(Optional.of(group));
+        when(groupMembershipIndex.getActiveMemberEmails(GROUP_ID)).thenReturn(Set.of("a@x.com", "b@x.com"));
+
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> {
+            savedExpenses.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(expenseRepository.saveAll(any())).thenAnswer(invocation -> {
+            for (Expense expense : invocation.<List<Expense>>getArgument(0)) {
+                savedExpenses.add(expense);
+                savedSplits.addAll(expense.getSplits());
+            }
+            return invocation.getArgument(0);
+        });
+        when(expenseSplitRepository.save(any(ExpenseSplit.class))).thenAnswer(invocation -> {
+            savedSplits.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(balanceSnapshotService.getNetBalances(GROUP_ID)).thenAnswer(invocation -> replaySavedRows());
+        doAnswer(invocation -> ledger.merge(invocation.getArgument(1), invocation.<Long>getArgument(2), Long::sum))
+                .when(groupBalanceRepository).applyDelta(anyString(), anyString(), anyLong());
+        doAnswer(invocation -> {
+            ledger.clear();
+            return null;
+        }).when(groupBalanceRepository).deleteAllByGroupId(GROUP_ID);
+
+        GroupChangeService groupChangeService = mock(GroupChangeService.class);
+        balanceLedgerService = new BalanceLedgerService(groupBalanceRepository, groupRepository, expenseRepository,
+                expenseSplitRepository, balanceSnapshotService, groupChangeService);
+        splitService = new SplitService(groupRepository, groupMemberRepository, expenseSplitRepository,
+                expenseRepository, mock(NotificationService.class), balanceLedgerService,
+                mock(SettlementPlanCache.class), mock(DebtGraphService.class), balanceSnapshotService,
+                groupChangeService, groupChangeRepository, groupMembershipIndex);
+    }
+
+    @Test
+    void firstExpenseOfLegacyGroupIsCountedOnce() {
+        splitService.addExpenseToGroup(user(), GROUP_ID, expense(1000, 500, 500));
+
+        assertThat(group.getBalancesInitialized()).isTrue();
+        assertThat(ledger).containsExactlyInAnyOrderEntriesOf(Map.of("a@x.com", 500L, "b@x.com", -500L));
+    }
+
+    @Test
+    void firstBulkOfLegacyGroupIsCountedOnce() {
+        splitService.addExpensesToGroup(user(), GROUP_ID,
+                new BulkExpenseCreationRequest(List.of(expense(1000, 500, 500), expense(600, 300, 300))));
+
+        assertThat(ledger).containsExactlyInAnyOrderEntriesOf(Map.of("a@x.com", 800L, "b@x.com", -800L));
+    }
+
+    @Test
+    void recordingIntoUninitializedLedgerFails() {
+        assertThatThrownBy(() -> balanceLedgerService.recordExpense(group, new Expense(), List.of()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(ledger).isEmpty();
+    }
+
+    @Test
+    void syncAtTheCurrentVersionReturnsNoChanges() {
+        givenVersion(3L);
+
+        GroupSyncResponse response = splitService.getGroupChanges("a@x.com", GROUP_ID, 3);
+
+        assertThat(response.getSequence()).isEqualTo(3);
+        assertThat(response.isResyncRequired()).isFalse();
+        assertThat(response.getExpenses()).isEmpty();
+        assertThat(response.getMembers()).isEmpty();
+        verifyNoInteractions(groupChangeRepository);
+    }
+
+    @Test
+    void syncReturnsChangesAfterTheClientVersionUpToTheLoadedOne() {
+        givenVersion(3L);
+        when(groupChangeRepository.findFirstSequence(GROUP_ID)).thenReturn(1L);
+        when(groupChangeRepository.findAllByGroupIdAndSequenceGreaterThanOrderBySequence(GROUP_ID, 1)).thenReturn(List.of(
+                change(2, GroupChangeType.EXPENSE_ADDED, "expense-2"),
+                change(3, GroupChangeType.MEMBER_ADDED, "c@x.com"),
+                // committed after the version was read
+                change(4, GroupChangeType.EXPENSE_ADDED, "expense-4")));
+        when(expenseRepository.findAllViewsByIdIn(List.of("expense-2"))).thenReturn(List.of(
+                new ExpenseView("expense-2", "Dinner", 1000, "a@x.com", user(), new Date())));
+        when(expenseSplitRepository.findAllViewsByExpenseIdIn(List.of("expense-2"))).thenReturn(List.of(
+                new ExpenseSplitView("expense-2", "split-1", "b@x.com", 500, new Date())));
+        when(groupMemberRepository.findAllViewsByGroupIdAndMemberEmailIn(GROUP_ID, Set.of("c@x.com")))
+                .thenReturn(List.of(new GroupMemberView(GROUP_ID, "c@x.com", false, true)));
+
+        GroupSyncResponse response = splitService.getGroupChanges("a@x.com", GROUP_ID, 1);
+
+        assertThat(response.getSequence()).isEqualTo(3);
+        assertThat(response.isResyncRequired()).isFalse();
+        assertThat(response.getExpenses()).extracting(ExpenseDTO::getExpenseId).containsExactly("expense-2");
+        assertThat(response.getExpenses().get(0).getExpenseSplits()).hasSize(1);
+        assertThat(response.getMembers()).extracting(GroupMemberDTO::getEmail).containsExactly("c@x.com");
+    }
+
+    @Test
+    void syncRequiresResyncWhenTheLogDoesNotReachBackToTheClientVersion() {
+        givenVersion(9L);
+        when(groupChangeRepository.findFirstSequence(GROUP_ID)).thenReturn(5L);
+
+        assertThat(splitService.getGroupChanges("a@x.com", GROUP_ID, 3).isResyncRequired()).isTrue();
+        assertThat(splitService.getGroupChanges("a@x.com", GROUP_ID, 4).isResyncRequired()).isFalse();
+    }
+
+    @Test
+    void syncRequiresResyncForAVersionAheadOfTheGroup() {
+        givenVersion(3L);
+        when(groupChangeRepository.findFirstSequence(GROUP_ID)).thenReturn(1L);
+
+        GroupSyncResponse response = splitService.getGroupChanges("a@x.com", GROUP_ID, 7);
+
+        assertThat(response.isResyncRequired()).isTrue();
+        assertThat(response.getSequence()).isEqualTo(3);
+    }
+
+    @Test
+    void syncIsRefusedToNonMembers() {
+        givenVersion(3L);
+
+        assertThatThrownBy(() -> splitService.getGroupChanges("z@x.com", GROUP_ID, 1))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void groupETagIsStableUntilTheVersionMoves() {
+        givenVersion(3L);
+        String first = splitService.getGroupInformationETag("a@x.com", GROUP_ID);
+        String again = splitService.getGroupInformationETag("a@x.com", GROUP_ID);
+
+        givenVersion(4L);
+        String bumped = splitService.getGroupInformationETag("a@x.com", GROUP_ID);
+
+        assertThat(first).isEqualTo(again).startsWith("\"").endsWith("\"");
+        assertThat(bumped).isNotEqualTo(first);
+    }
+
+    @Test
+    void settlementETagIsScopedToTheCaller() {
+        givenVersion(3L);
+        when(groupMembershipIndex.isActiveMember(GROUP_ID, "b@x.com")).thenReturn(true);
+
+        assertThat(splitService.getSettlementsETag("a@x.com", GROUP_ID))
+                .isNotEqualTo(splitService.getSettlementsETag("b@x.com", GROUP_ID))
+                .isNotEqualTo(splitService.getGroupInformationETag("a@x.com", GROUP_ID));
+    }
+
+    @Test
+    void summaryETagChangesWhenAnyGroupMovesOrMembershipChanges() {
+        GroupVersion one = new GroupVersion("group-1", 1L, new Date(1_000));
+        GroupVersion two = new GroupVersion("group-2", 5L, new Date(2_000));
+        when(groupRepository.findAllActiveVersionsByUserId("a@x.com")).thenReturn(List.of(one, two));
+        String both = splitService.getAllGroupSummaryETag("a@x.com");
+
+        when(groupRepository.findAllActiveVersionsByUserId("a@x.com"))
+                .thenReturn(List.of(one, new GroupVersion("group-2", 6L, new Date(2_000))));
+        String bumped = splitService.getAllGroupSummaryETag("a@x.com");
+
+        when(groupRepository.findAllActiveVersionsByUserId("a@x.com")).thenReturn(List.of(one));
+        String left = splitService.getAllGroupSummaryETag("a@x.com");
+
+        assertThat(both).isNotEqualTo(bumped).isNotEqualTo(left);
+        assertThat(bumped).isNotEqualTo(left);
+    }
+
+    @Test
+    void eTagIsRefusedToNonMembers() {
+        givenVersion(3L);
+
+        assertThatThrownBy(() -> splitService.getGroupInformationETag("z@x.com", GROUP_ID))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    private void givenVersion(Long version) {
+        when(groupRepository.findActiveVersionById(GROUP_ID))
+                .thenReturn(Optional.of(new GroupVersion(GROUP_ID, version, new Date(1_000))));
+        when(groupMembershipIndex.isActiveMember(GROUP_ID, "a@x.com")).thenReturn(true);
+    }
+
+    private static GroupChange change(long sequence, GroupChangeType changeType, String entityId) {
+        return GroupChange.builder().id("change-" + sequence).groupId(GROUP_ID).sequence(sequence)
+                .changeType(changeType).entityId(entityId).build();
+    }
+
+    private Map<String, Long> replaySavedRows() {
+        Map<String, Long> balances = new HashMap<>();
+        savedExpenses.forEach(expense -> balances.merge(expense.getPaidBy(), expense.getTotalAmount(), Long::sum));
+        savedSplits.forEach(split -> balances.merge(split.getOwedBy(), -split.getAmountOwed(), Long::sum));
+        return balances;
+    }
+
+    private static User user() {
+        return User.builder().id("user-a").email("a@x.com").fullName("A").build();
+    }
+
+    private static ExpenseCreationRequest expense(long total, long owedByA, long owedByB) {
+        return ExpenseCreationRequest.builder()
+                .description("Dinner")
+                .totalAmount(total)
+                .paidBy("a@x.com")
+                .splitType(SplitType.UNEQUAL)
+                .shares(List.of(new IndividualShare("a@x.com", owedByA, null),
+                        new IndividualShare("b@x.com", owedByB, null)))
+                .build();
+    }
+}
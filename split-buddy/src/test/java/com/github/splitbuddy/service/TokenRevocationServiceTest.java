@@ -0,0 +1,93 @@
+package com.github.splitbuddy.service;
+
+import com.github.splitbuddy.dtos.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private static final String EMAIL = "a@x.com";
+
+    private final RedisService redisService = mock(RedisService.class);
+
+    @Test
+    void tokensIssuedUpToTheRevocationAreRevoked() {
+        TokenRevocationService service = service(60_000);
+        VerifiedToken before = issuedAt(System.currentTimeMillis() - 1_000);
+
+        service.revokeTokens(EMAIL);
+
+        assertThat(service.isRevoked(before)).isTrue();
+        assertThat(service.isRevoked(issuedAt(System.currentTimeMillis() + 1))).isFalse();
+        verify(redisService).put(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void answerThatNothingWasRevokedIsCached() {
+        TokenRevocationService service = service(60_000);
+
+        assertThat(service.isRevoked(issuedAt(1_000))).isFalse();
+        assertThat(service.isRevoked(issuedAt(1_000))).isFalse();
+
+        verify(redisService, times(1)).get(anyString());
+    }
+
+    @Test
+    void revocationByAnotherNodeIsSeenOnceTheCachedAnswerExpires() {
+        TokenRevocationService service = service(0);
+        assertThat(service.isRevoked(issuedAt(1_000))).isFalse();
+
+        when(redisService.get(anyString())).thenReturn("2000");
+
+        assertThat(service.isRevoked(issuedAt(1_000))).isTrue();
+        assertThat(service.isRevoked(issuedAt(2_000))).isTrue();
+        assertThat(service.isRevoked(issuedAt(2_001))).isFalse();
+    }
+
+    @Test
+    void olderRevocationReadLaterDoesNotHideANewerOne() {
+        TokenRevocationService service = service(0);
+        service.revokeTokens(EMAIL);
+        when(redisService.get(anyString())).thenReturn("1000");
+
+        assertThat(service.isRevoked(issuedAt(System.currentTimeMillis() - 1_000))).isTrue();
+    }
+
+    @Test
+    void redisReadFailureCountsAsNotRevoked() {
+        TokenRevocationService service = service(60_000);
+        when(redisService.get(anyString())).thenThrow(new IllegalStateException("redis down"));
+
+        assertThat(service.isRevoked(issuedAt(1_000))).isFalse();
+    }
+
+    @Test
+    void redisWriteFailureStillRevokesOnThisNode() {
+        TokenRevocationService service = service(60_000);
+        doThrow(new IllegalStateException("redis down")).when(redisService).put(anyString(), anyString(), anyLong());
+
+        service.revokeTokens(EMAIL);
+
+        assertThat(service.isRevoked(issuedAt(System.currentTimeMillis() - 1_000))).isTrue();
+    }
+
+    private TokenRevocationService service(long cacheTtlMillis) {
+        return new TokenRevocationService(redisService, new SimpleMeterRegistry(), 3_600_000, 100, cacheTtlMillis);
+    }
+
+    private static VerifiedToken issuedAt(long millis) {
+        return new VerifiedToken(EMAIL, VerifiedToken.ACCESS, new Date(millis), new Date(millis + 3_600_000),
+                "user-a", "A", "USER", true);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.splitbuddy.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.github.splitbuddy.settlement.MinimumTransferSettlementSolverTest.assertSettles;
+import static com.github.splitbuddy.settlement.MinimumTransferSettlementSolverTest.collect;
+import static com.github.splitbuddy.settlement.MinimumTransferSettlementSolverTest.randomBalances;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GreedySettlementSolverTest {
+
+    private final GreedySettlementSolver solver = new GreedySettlementSolver();
+
+    @Test
+    void matchesTheLargestDebtorWithTheLargestCreditorFirst() {
+        long[] balances = {100, -250, 300, -150};
+        List<long[]> transfers = new ArrayList<>();
+
+        assertThat(solver.solve(balances.clone(), balances.length, collect(transfers), Long.MAX_VALUE)).isTrue();
+
+        assertSettles(balances, transfers);
+        assertThat(transfers.get(0)).containsExactly(1, 2, 250);
+        assertThat(transfers.get(1)).containsExactly(3, 0, 100);
+        assertThat(transfers.get(2)).containsExactly(3, 2, 50);
+    }
+
+    @Test
+    void settlesEveryBalanceInFewerTransfersThanMembers() {
+        Random random = new Random(42);
+        for (int run = 0; run < 300; run++) {
+            int members = 2 + random.nextInt(40);
+            long[] balances = randomBalances(random, members);
+            List<long[]> transfers = new ArrayList<>();
+
+            assertThat(solver.solve(balances.clone(), members, collect(transfers), Long.MAX_VALUE)).isTrue();
+
+            assertSettles(balances, transfers);
+            assertThat(transfers.size()).isLessThan(members);
+        }
+    }
+
+    @Test
+    void ignoresSettledMembersAndGrowsForLargeGroups() {
+        long[] balances = new long[100];
+        balances[10] = 500;
+        balances[99] = -500;
+        List<long[]> transfers = new ArrayList<>();
+
+        assertThat(solver.solve(balances.clone(), balances.length, collect(transfers), Long.MAX_VALUE)).isTrue();
+
+        assertThat(transfers).hasSize(1);
+        assertThat(transfers.get(0)).containsExactly(99, 10, 500);
+    }
+}
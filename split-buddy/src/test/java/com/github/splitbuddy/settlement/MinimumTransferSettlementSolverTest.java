@@ -0,0 +1,139 @@
+package com.github.splitbuddy.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinimumTransferSettlementSolverTest {
+
+    private final MinimumTransferSettlementSolver solver = new MinimumTransferSettlementSolver();
+
+    @Test
+    void settlesEachZeroSumGroupSeparately() {
+        long[] balances = {700, 300, -500, -500, 400, -400};
+        List<long[]> transfers = new ArrayList<>();
+
+        assertThat(solver.solve(balances.clone(), balances.length, collect(transfers), Long.MAX_VALUE)).isTrue();
+
+        assertSettles(balances, transfers);
+        assertThat(transfers).hasSize(4);
+    }
+
+    @Test
+    void needsNoTransfersWhenEverythingIsSettled() {
+        List<long[]> transfers = new ArrayList<>();
+
+        assertThat(solver.solve(new long[]{0, 0, 0}, 3, collect(transfers), Long.MAX_VALUE)).isTrue();
+        assertThat(transfers).isEmpty();
+    }
+
+    @Test
+    void findsTheFewestTransfers() {
+        Random random = new Random(42);
+        for (int run = 0; run < 300; run++) {
+            long[] balances = randomBalances(random, 2 + random.nextInt(7));
+            List<long[]> transfers = new ArrayList<>();
+
+            assertThat(solver.solve(balances.clone(), balances.length, collect(transfers), Long.MAX_VALUE)).isTrue();
+
+            assertSettles(balances, transfers);
+            assertThat(transfers).as("transfers for %s", Arrays.toString(balances))
+                    .hasSize(fewestTransfers(balances));
+        }
+    }
+
+    @Test
+    void reusesItsTablesAcrossCallsOfDifferentSizes() {
+        Random random = new Random(7);
+        for (int members : new int[]{14, 3, 10, 2}) {
+            long[] balances = randomBalances(random, members);
+            List<long[]> transfers = new ArrayList<>();
+
+            assertThat(solver.solve(balances.clone(), balances.length, collect(transfers), Long.MAX_VALUE)).isTrue();
+            assertSettles(balances, transfers);
+        }
+    }
+
+    @Test
+    void givesUpWithoutEmittingWhenTheDeadlinePassed() {
+        long[] balances = randomBalances(new Random(1), 16);
+        List<long[]> transfers = new ArrayList<>();
+
+        assertThat(solver.solve(balances, balances.length, collect(transfers), System.nanoTime() - 1)).isFalse();
+        assertThat(transfers).isEmpty();
+    }
+
+    @Test
+    void givesUpWithoutEmittingWhenBalancesDoNotSumToZero() {
+        List<long[]> transfers = new ArrayList<>();
+
+        assertThat(solver.solve(new long[]{500, -499}, 2, collect(transfers), Long.MAX_VALUE)).isFalse();
+        assertThat(transfers).isEmpty();
+    }
+
+    @Test
+    void givesUpBeyondItsMemberLimit() {
+        long[] balances = new long[MinimumTransferSettlementSolver.MAX_MEMBERS + 1];
+        Arrays.fill(balances, 1);
+        balances[balances.length - 1] = -MinimumTransferSettlementSolver.MAX_MEMBERS;
+
+        assertThat(solver.solve(balances, balances.length, (from, to, amount) -> {
+        }, Long.MAX_VALUE)).isFalse();
+    }
+
+    // small amounts so that zero-sum subsets are common
+    static long[] randomBalances(Random random, int members) {
+        long[] balances = new long[members];
+        long total = 0;
+        for (int i = 0; i < members - 1; i++) {
+            balances[i] = (random.nextInt(9) - 4) * 100L;
+            total += balances[i];
+        }
+        balances[members - 1] = -total;
+        return balances;
+    }
+
+    static SettlementSolver.TransferSink collect(List<long[]> transfers) {
+        return (from, to, amount) -> transfers.add(new long[]{from, to, amount});
+    }
+
+    static void assertSettles(long[] balances, List<long[]> transfers) {
+        long[] remaining = balances.clone();
+        for (long[] transfer : transfers) {
+            assertThat(transfer[2]).isPositive();
+            assertThat(remaining[(int) transfer[0]]).isNegative();
+            assertThat(remaining[(int) transfer[1]]).isPositive();
+            remaining[(int) transfer[0]] += transfer[2];
+            remaining[(int) transfer[1]] -= transfer[2];
+        }
+        assertThat(remaining).containsOnly(0L);
+    }
+
+    // exhaustive search: settle the first open member against every other member of opposite sign
+    private static int fewestTransfers(long[] balances) {
+        return fewestTransfers(balances.clone(), 0);
+    }
+
+    private static int fewestTransfers(long[] balances, int start) {
+        while (start < balances.length && balances[start] == 0) {
+            start++;
+        }
+        if (start == balances.length) {
+            return 0;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int other = start + 1; other < balances.length; other++) {
+            if (balances[other] != 0 && Long.signum(balances[other]) != Long.signum(balances[start])) {
+                balances[other] += balances[start];
+                best = Math.min(best, 1 + fewestTransfers(balances, start + 1));
+                balances[other] -= balances[start];
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.splitbuddy.settlement;
+
+import com.github.splitbuddy.dtos.SettlementTransactionDTO;
+import com.github.splitbuddy.enums.SolverMode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettlementEngineTest {
+
+    private static final SettlementPolicy OPTIMAL = new SettlementPolicy(SolverMode.OPTIMAL, 16, Duration.ofSeconds(5));
+
+    @Test
+    void accumulatesBalancesPerMember() {
+        try (SettlementEngine engine = SettlementEngine.acquire()) {
+            engine.add("a@x.com", 500);
+            engine.add("b@x.com", -200);
+            engine.add("a@x.com", -100);
+
+            assertThat(engine.balanceOf("a@x.com")).isEqualTo(400);
+            assertThat(engine.balanceOf("b@x.com")).isEqualTo(-200);
+            assertThat(engine.balanceOf("c@x.com")).isZero();
+        }
+    }
+
+    @Test
+    void closedEngineIsLentAgainWithEmptyBalances() {
+        SettlementEngine engine = SettlementEngine.acquire();
+        engine.add("a@x.com", 500);
+        engine.close();
+
+        try (SettlementEngine reused = SettlementEngine.acquire()) {
+            assertThat(reused).isSameAs(engine);
+            assertThat(reused.balanceOf("a@x.com")).isZero();
+        }
+    }
+
+    @Test
+    void enginesInUseAreNeverShared() {
+        try (SettlementEngine first = SettlementEngine.acquire();
+             SettlementEngine second = SettlementEngine.acquire()) {
+            assertThat(first).isNotSameAs(second);
+        }
+    }
+
+    @Test
+    void closingTwiceLendsTheEngineOnce() {
+        SettlementEngine engine = SettlementEngine.acquire();
+        engine.close();
+        engine.close();
+
+        try (SettlementEngine first = SettlementEngine.acquire();
+             SettlementEngine second = SettlementEngine.acquire()) {
+            assertThat(first).isSameAs(engine);
+            assertThat(second).isNotSameAs(engine);
+        }
+    }
+
+    @Test
+    void optimalPolicyUsesFewerTransfersThanGreedy() {
+        List<SettlementTransactionDTO> greedy = settle(SettlementPolicy.GREEDY);
+        List<SettlementTransactionDTO> optimal = settle(OPTIMAL);
+
+        assertThat(greedy).hasSize(4);
+        assertThat(optimal).hasSize(3);
+    }
+
+    @Test
+    void fallsBackToGreedyWhenTheBudgetIsSpent() {
+        SettlementPolicy noBudget = new SettlementPolicy(SolverMode.OPTIMAL, 16, Duration.ofNanos(-1));
+
+        assertThat(settle(noBudget)).isEqualTo(settle(SettlementPolicy.GREEDY));
+    }
+
+    @Test
+    void fallsBackToGreedyWhenBalancesDoNotSumToZero() {
+        try (SettlementEngine engine = SettlementEngine.acquire()) {
+            engine.add("a@x.com", 500);
+            engine.add("b@x.com", -300);
+
+            assertThat(engine.settle(OPTIMAL))
+                    .containsExactly(new SettlementTransactionDTO("b@x.com", "a@x.com", 300));
+        }
+    }
+
+    @Test
+    void rejectsMemberLimitsTheOptimalSolverCannotHandle() {
+        assertThatThrownBy(() -> new SettlementPolicy(SolverMode.OPTIMAL, SettlementPolicy.MAX_OPTIMAL_MEMBERS + 1,
+                Duration.ofMillis(50))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // greedy pays 500 towards the -600 first and needs four transfers, settling {500, -500} apart needs only three
+    private static List<SettlementTransactionDTO> settle(SettlementPolicy policy) {
+        try (SettlementEngine engine = SettlementEngine.acquire()) {
+            engine.add("a@x.com", 500);
+            engine.add("b@x.com", 400);
+            engine.add("c@x.com", 200);
+            engine.add("d@x.com", -600);
+            engine.add("e@x.com", -500);
+            return engine.settle(policy);
+        }
+    }
+}
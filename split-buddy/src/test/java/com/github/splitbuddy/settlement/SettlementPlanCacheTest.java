@@ -0,0 +1,115 @@
+package com.github.splitbuddy.settlement;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dtos.SettlementTransactionDTO;
+import com.github.splitbuddy.service.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SettlementPlanCacheTest {
+
+    private static final String GROUP_ID = "group-1";
+
+    private final RedisService redisService = mock(RedisService.class);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesThePlanOfTheSameVersionWithoutRecomputing() {
+        SettlementPlanCache cache = newCache(10, false);
+
+        List<SettlementTransactionDTO> first = cache.get(GROUP_ID, 1, loader(100));
+        List<SettlementTransactionDTO> second = cache.get(GROUP_ID, 1, loader(200));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void recomputesOnceTheVersionIsBumped() {
+        SettlementPlanCache cache = newCache(10, false);
+
+        cache.get(GROUP_ID, 1, loader(100));
+        List<SettlementTransactionDTO> plan = cache.get(GROUP_ID, 2, loader(200));
+
+        assertThat(plan).extracting(SettlementTransactionDTO::getAmount).containsExactly(200L);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getIfPresent(GROUP_ID, 1)).isNull();
+    }
+
+    @Test
+    void slowReaderDoesNotReplaceANewerPlan() {
+        SettlementPlanCache cache = newCache(10, false);
+
+        cache.put(GROUP_ID, 2, plan(200));
+        cache.put(GROUP_ID, 1, plan(100));
+
+        assertThat(cache.getIfPresent(GROUP_ID, 2)).extracting(SettlementTransactionDTO::getAmount)
+                .containsExactly(200L);
+    }
+
+    @Test
+    void keepsOnePlanPerGroupWithinTheBound() {
+        SettlementPlanCache cache = newCache(2, false);
+
+        cache.put("group-1", 1, plan(1));
+        cache.put("group-1", 2, plan(2));
+        cache.put("group-2", 1, plan(3));
+        cache.put("group-3", 1, plan(4));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent("group-1", 2)).isNull();
+    }
+
+    @Test
+    void fallsBackToRedisOnALocalMissAndKeepsThePlan() throws Exception {
+        SettlementPlanCache cache = newCache(10, true);
+        when(redisService.get(anyString(), any(TypeReference.class)))
+                .thenReturn(plan(300));
+
+        assertThat(cache.get(GROUP_ID, 5, loader(100))).extracting(SettlementTransactionDTO::getAmount)
+                .containsExactly(300L);
+        assertThat(loads).hasValue(0);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void recomputesWhenRedisFails() throws Exception {
+        SettlementPlanCache cache = newCache(10, true);
+        when(redisService.get(anyString(), any(TypeReference.class)))
+                .thenThrow(new IllegalStateException("redis down"));
+        doThrow(new IllegalStateException("redis down")).when(redisService).put(anyString(), any(), anyLong());
+
+        assertThat(cache.get(GROUP_ID, 1, loader(100))).extracting(SettlementTransactionDTO::getAmount)
+                .containsExactly(100L);
+        assertThat(loads).hasValue(1);
+    }
+
+    private SettlementPlanCache newCache(int maxEntries, boolean redisEnabled) {
+        return new SettlementPlanCache(redisService, new ObjectMapper(), new SimpleMeterRegistry(), maxEntries,
+                redisEnabled, 60_000);
+    }
+
+    private Supplier<List<SettlementTransactionDTO>> loader(long amount) {
+        return () -> {
+            loads.incrementAndGet();
+            return plan(amount);
+        };
+    }
+
+    private static List<SettlementTransactionDTO> plan(long amount) {
+        return List.of(new SettlementTransactionDTO("b@x.com", "a@x.com", amount));
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.splitbuddy.utils;
+
+import com.github.splitbuddy.dtos.VerifiedToken;
+import com.github.splitbuddy.entity.User;
+import com.github.splitbuddy.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    @Test
+    void embeddedTokenCarriesThePrincipal() {
+        VerifiedToken token = verify(jwtUtils(true), user(true));
+
+        assertThat(token.hasPrincipalClaims()).isTrue();
+        User principal = UserUtil.principalOf(token);
+        assertThat(principal.getId()).isEqualTo("user-a");
+        assertThat(principal.getEmail()).isEqualTo("a@x.com");
+        assertThat(principal.getRole()).isEqualTo(Role.USER);
+        assertThat(principal.getIsEmailVerified()).isTrue();
+    }
+
+    @Test
+    void unverifiedUserStaysUnverifiedInThePrincipal() {
+        VerifiedToken token = verify(jwtUtils(true), user(null));
+
+        assertThat(token.hasPrincipalClaims()).isTrue();
+        assertThat(UserUtil.principalOf(token).getIsEmailVerified()).isFalse();
+    }
+
+    @Test
+    void tokenWithoutEmbeddedClaimsIsResolvedFromTheDatabase() {
+        VerifiedToken token = verify(jwtUtils(false), user(true));
+
+        assertThat(token.isAccessToken()).isTrue();
+        assertThat(token.subject()).isEqualTo("a@x.com");
+        assertThat(token.hasPrincipalClaims()).isFalse();
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromTheCache() {
+        JwtUtils jwtUtils = jwtUtils(true);
+        String token = jwtUtils.generateToken(user(true));
+
+        assertThat(jwtUtils.verify(token)).isSameAs(jwtUtils.verify(token));
+    }
+
+    private static VerifiedToken verify(JwtUtils jwtUtils, User user) {
+        return jwtUtils.verify(jwtUtils.generateToken(user));
+    }
+
+    private static JwtUtils jwtUtils(boolean embeddedClaims) {
+        return new JwtUtils(SECRET, 60_000, 120_000, 10, embeddedClaims, new SimpleMeterRegistry());
+    }
+
+    private static User user(Boolean emailVerified) {
+        return User.builder().id("user-a").email("a@x.com").fullName("A").role(Role.USER)
+                .isEmailVerified(emailVerified).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.splitbuddy.utils;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.splitbuddy.dtos.ExpenseCreationRequest;
+import com.github.splitbuddy.dtos.SettlementTransactionDTO;
+import com.github.splitbuddy.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyUtilTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void convertsMajorUnitsToMinorUnitsExactly() {
+        assertThat(MoneyUtil.toMinorUnits(new BigDecimal("12.5"))).isEqualTo(1250);
+        assertThat(MoneyUtil.toMinorUnits(new BigDecimal("0.01"))).isEqualTo(1);
+        assertThat(MoneyUtil.toMinorUnits(new BigDecimal("19.990"))).isEqualTo(1999);
+        assertThat(MoneyUtil.toMinorUnits(new BigDecimal("-3.30"))).isEqualTo(-330);
+        assertThat(MoneyUtil.toMinorUnits(new BigDecimal("1E+2"))).isEqualTo(10000);
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimalPlaces() {
+        assertThatThrownBy(() -> MoneyUtil.toMinorUnits(new BigDecimal("0.005")))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void rejectsAmountsBeyondLongRange() {
+        assertThatThrownBy(() -> MoneyUtil.toMinorUnits(new BigDecimal("99999999999999999999")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void convertsMinorUnitsToMajorUnitsWithTwoDecimals() {
+        assertThat(MoneyUtil.toMajorUnits(1250)).isEqualByComparingTo("12.50");
+        assertThat(MoneyUtil.toMajorUnits(1250).toPlainString()).isEqualTo("12.50");
+        assertThat(MoneyUtil.toMajorUnits(-1).toPlainString()).isEqualTo("-0.01");
+    }
+
+    @Test
+    void readsDecimalNumbersAndStringsAsMinorUnits() throws Exception {
+        ExpenseCreationRequest fromNumber = objectMapper.readValue("{\"totalAmount\": 12.34}", ExpenseCreationRequest.class);
+        ExpenseCreationRequest fromString = objectMapper.readValue("{\"totalAmount\": \" 0.1 \"}", ExpenseCreationRequest.class);
+
+        assertThat(fromNumber.getTotalAmount()).isEqualTo(1234L);
+        assertThat(fromString.getTotalAmount()).isEqualTo(10L);
+    }
+
+    @Test
+    void readsMissingAmountAsNull() throws Exception {
+        assertThat(objectMapper.readValue("{}", ExpenseCreationRequest.class).getTotalAmount()).isNull();
+        assertThat(objectMapper.readValue("{\"totalAmount\": null}", ExpenseCreationRequest.class).getTotalAmount())
+                .isNull();
+    }
+
+    @Test
+    void rejectsJsonAmountsWithFractionsOfACent() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"totalAmount\": 1.005}", ExpenseCreationRequest.class))
+                .isInstanceOf(JsonMappingException.class)
+                .hasRootCauseInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void writesMinorUnitsAsDecimalNumbers() throws Exception {
+        SettlementTransactionDTO transaction = new SettlementTransactionDTO("a@x.com", "b@x.com", 1205);
+
+        assertThat(objectMapper.writeValueAsString(transaction)).contains("\"amount\":12.05");
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.splitbuddy.validation;
+
+import com.github.splitbuddy.dtos.ExpenseCreationRequest;
+import com.github.splitbuddy.dtos.IndividualShare;
+import com.github.splitbuddy.enums.SplitType;
+import com.github.splitbuddy.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseValidationStrategyTest {
+
+    @Test
+    void equalSplitSpreadsTheRemainderOneMinorUnitAtATime() {
+        ExpenseCreationRequest request = request(SplitType.EQUAL, 1000,
+                share("a", 334, null), share("b", 333, null), share("c", 333, null));
+
+        assertThatCode(() -> validate(request)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void equalSplitRejectsSharesMoreThanOneMinorUnitApart() {
+        ExpenseCreationRequest request = request(SplitType.EQUAL, 1000,
+                share("a", 335, null), share("b", 333, null), share("c", 332, null));
+
+        assertThatThrownBy(() -> validate(request)).isInstanceOf(InvalidDataException.class)
+                .hasMessageContaining("3.33 or 3.34");
+    }
+
+    @Test
+    void equalSplitRejectsAnyDifferenceWhenTheTotalDividesEvenly() {
+        ExpenseCreationRequest request = request(SplitType.EQUAL, 1000, share("a", 501, null), share("b", 499, null));
+
+        assertThatThrownBy(() -> validate(request)).isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void sharesMustAddUpToTheTotalExactly() {
+        for (SplitType splitType : List.of(SplitType.EQUAL, SplitType.UNEQUAL)) {
+            ExpenseCreationRequest request = request(splitType, 1000, share("a", 500, null), share("b", 499, null));
+
+            assertThatThrownBy(() -> validate(request)).isInstanceOf(InvalidDataException.class);
+        }
+    }
+
+    @Test
+    void unequalSplitAcceptsAnySharesMatchingTheTotal() {
+        ExpenseCreationRequest request = request(SplitType.UNEQUAL, 1001, share("a", 1, null), share("b", 1000, null));
+
+        assertThatCode(() -> validate(request)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void unequalSplitRejectsPercentages() {
+        ExpenseCreationRequest request = request(SplitType.UNEQUAL, 1000, share("a", 500, 50.0), share("b", 500, null));
+
+        assertThatThrownBy(() -> validate(request)).isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void percentageSplitAllowsEachShareToBeOneMinorUnitOff() {
+        ExpenseCreationRequest request = request(SplitType.PERCENTAGE, 1000,
+                share("a", 334, 33.34), share("b", 333, 33.33), share("c", 333, 33.33));
+
+        assertThatCode(() -> validate(request)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void percentageSplitRejectsSharesFarFromTheirPercentage() {
+        ExpenseCreationRequest request = request(SplitType.PERCENTAGE, 1000, share("a", 600, 50.0), share("b", 400, 50.0));
+
+        assertThatThrownBy(() -> validate(request)).isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void percentageSplitRequiresPercentagesAddingUpToHundred() {
+        ExpenseCreationRequest request = request(SplitType.PERCENTAGE, 1000, share("a", 500, 50.0), share("b", 500, 40.0));
+
+        assertThatThrownBy(() -> validate(request)).isInstanceOf(InvalidDataException.class)
+                .hasMessageContaining("100%");
+    }
+
+    private static void validate(ExpenseCreationRequest request) {
+        ExpenseValidationStrategyFactory.getStrategy(request.getSplitType()).validate(request);
+    }
+
+    private static ExpenseCreationRequest request(SplitType splitType, long totalAmount, IndividualShare... shares) {
+        return ExpenseCreationRequest.builder()
+                .description("dinner")
+                .totalAmount(totalAmount)
+                .paidBy("a")
+                .splitType(splitType)
+                .shares(List.of(shares))
+                .build();
+    }
+
+    private static IndividualShare share(String owedBy, long amountOwed, Double percentage) {
+        return new IndividualShare(owedBy, amountOwed, percentage);
+    }
+}